@@ -80,7 +80,7 @@ const authReducer = (state: AuthState, action: AuthAction): AuthState => {
 
 interface AuthContextType extends AuthState {
   login: (credentials: { username: string; password: string }) => Promise<void>
-  logout: () => void
+  logout: () => Promise<void>
   clearError: () => void
 }
 
@@ -111,7 +111,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
           const user = await authService.validateToken(token)
           dispatch({ type: 'AUTH_SUCCESS', payload: { user, token } })
         } catch (error) {
-          localStorage.removeItem('token')
+          await authService.logout()
           dispatch({ type: 'AUTH_FAILURE', payload: 'Session expired' })
         }
       } else {
@@ -126,8 +126,11 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   const login = async (credentials: { username: string; password: string }) => {
     try {
       dispatch({ type: 'AUTH_START' })
-      const { user, token } = await authService.login(credentials)
+      const { user, token, refreshToken } = await authService.login(credentials)
       localStorage.setItem('token', token)
+      if (refreshToken) {
+        localStorage.setItem('refreshToken', refreshToken)
+      }
       dispatch({ type: 'AUTH_SUCCESS', payload: { user, token } })
     } catch (error) {
       const errorMessage = error instanceof Error ? error.message : 'Login failed'
@@ -136,8 +139,8 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     }
   }
 
-  const logout = () => {
-    localStorage.removeItem('token')
+  const logout = async () => {
+    await authService.logout()
     dispatch({ type: 'AUTH_LOGOUT' })
   }
 
@@ -175,7 +175,7 @@ const FormsPage: React.FC = () => {
       try {
         setIsLoading(true)
         const api = createCompanyApi(companyId)
-        const response = await api.getForms()
+        const response = await api.getFormSummaries()
         
         // Transform the data to match our interface
         const formsData: Form[] = response.data.map((form: any) => ({
@@ -225,8 +225,8 @@ const ListBuilderPage: React.FC = () => {
         name: list.name,
         description: list.description
       })
-      setFields(list.fields)
-      setItems(list.items)
+      setFields(list.fields ?? [])
+      setItems(list.items ?? [])
     } catch (error) {
       console.error('Failed to load list:', error)
     } finally {
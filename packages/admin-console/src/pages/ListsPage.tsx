@@ -114,22 +114,13 @@ const EmptyState = styled.div`
   color: ${props => props.theme.colors.textSecondary};
 `
 
-interface ListItem {
-  id: string
-  [key: string]: any
-}
-
-interface List {
+interface ListSummary {
   id: string
   name: string
   description: string
-  fields: {
-    name: string
-    type: 'text' | 'number' | 'email' | 'select' | 'date'
-    required: boolean
-    options?: string[]
-  }[]
-  items: ListItem[]
+  fieldCount: number
+  requiredFieldCount: number
+  itemCount: number
   createdAt: string
   updatedAt: string
 }
@@ -140,7 +131,7 @@ const ListsPage: React.FC = () => {
   const { companyId } = useParams<{ companyId: string }>()
   const navigate = useNavigate()
   
-  const [lists, setLists] = useState<List[]>([])
+  const [lists, setLists] = useState<ListSummary[]>([])
   const [isLoading, setIsLoading] = useState(true)
   const [showCreateModal, setShowCreateModal] = useState(false)
 
@@ -156,7 +147,7 @@ const ListsPage: React.FC = () => {
     try {
       setIsLoading(true)
       const api = createCompanyApi(companyId)
-      const response = await api.getLists()
+      const response = await api.getListSummaries()
       setLists(response.data)
     } catch (error) {
       console.error('Failed to load lists:', error)
@@ -247,15 +238,15 @@ const ListsPage: React.FC = () => {
               
               <ListStats>
                 <Stat>
-                  <StatValue>{list.fields.length}</StatValue>
+                  <StatValue>{list.fieldCount ?? 0}</StatValue>
                   <StatLabel>Fields</StatLabel>
                 </Stat>
                 <Stat>
-                  <StatValue>{list.items.length}</StatValue>
+                  <StatValue>{list.itemCount ?? 0}</StatValue>
                   <StatLabel>Items</StatLabel>
                 </Stat>
                 <Stat>
-                  <StatValue>{list.fields.filter(f => f.required).length}</StatValue>
+                  <StatValue>{list.requiredFieldCount ?? 0}</StatValue>
                   <StatLabel>Required</StatLabel>
                 </Stat>
               </ListStats>
@@ -28,18 +28,55 @@ api.interceptors.request.use(
   }
 )
 
+// Access tokens are short-lived; a single refresh is shared by all requests that fail with 401 meanwhile
+let refreshInFlight: Promise<string> | null = null
+
+// Endpoints whose 401 means bad credentials rather than an expired access token
+const NO_REFRESH_URLS = ['/auth/login', '/auth/refresh', '/auth/logout']
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshInFlight) {
+    const refreshToken = localStorage.getItem('refreshToken')
+    refreshInFlight = (refreshToken
+      ? axios.post(`${api.defaults.baseURL}/auth/refresh`, { refreshToken }).then((response) => {
+          localStorage.setItem('token', response.data.token)
+          localStorage.setItem('refreshToken', response.data.refreshToken)
+          return response.data.token as string
+        })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => {
+      refreshInFlight = null
+    })
+  }
+  return refreshInFlight
+}
+
 // Response interceptor to handle common errors
 api.interceptors.response.use(
   (response: AxiosResponse) => {
     return response
   },
-  (error) => {
+  async (error) => {
+    const original = error.config as (AxiosRequestConfig & { _retried?: boolean }) | undefined
+    if (error.response?.status === 401 && original && !original._retried && !NO_REFRESH_URLS.includes(original.url ?? '')) {
+      // Expired access token - refresh it once and replay the request
+      original._retried = true
+      try {
+        const token = await refreshAccessToken()
+        original.headers = { ...original.headers, Authorization: `Bearer ${token}` }
+        return api(original)
+      } catch (refreshError) {
+        // Fall through to the 401 handling below
+      }
+    }
+
     if (error.response) {
       // Handle specific HTTP error codes
       switch (error.response.status) {
         case 401:
-          // Unauthorized - clear token and redirect to login
+          // Unauthorized and the session cannot be refreshed - clear tokens and redirect to login
           localStorage.removeItem('token')
+          localStorage.removeItem('refreshToken')
           window.location.href = '/login'
           break
         case 403:
@@ -77,6 +114,7 @@ export const createCompanyApi = (companyId: string) => {
     return {
       // Forms
       getForms: () => mockApiService.getForms(companyId),
+      getFormSummaries: () => mockApiService.getFormSummaries(companyId),
       getForm: (formId: string) => mockApiService.getForm(companyId, formId),
       createForm: (schema: any) => mockApiService.createForm(companyId, schema),
       updateForm: (formId: string, schema: any) => mockApiService.updateForm(companyId, formId, schema),
@@ -107,6 +145,7 @@ export const createCompanyApi = (companyId: string) => {
 
       // Lists
       getLists: () => mockApiService.getLists(companyId),
+      getListSummaries: () => mockApiService.getListSummaries(companyId),
       getList: (listId: string) => mockApiService.getList(companyId, listId),
       createList: (list: any) => mockApiService.createList(companyId, list),
       updateList: (listId: string, list: any) => mockApiService.updateList(companyId, listId, list),
@@ -118,6 +157,7 @@ export const createCompanyApi = (companyId: string) => {
   return {
     // Forms
     getForms: () => api.get(`${baseURL}/forms`),
+    getFormSummaries: () => api.get(`${baseURL}/forms/summary`),
     getForm: (formId: string) => api.get(`${baseURL}/forms/${formId}`),
     createForm: (schema: any) => api.post(`${baseURL}/forms`, schema),
     updateForm: (formId: string, schema: any) => api.put(`${baseURL}/forms/${formId}`, schema),
@@ -148,6 +188,7 @@ export const createCompanyApi = (companyId: string) => {
 
     // Lists
     getLists: () => api.get(`${baseURL}/lists`),
+    getListSummaries: () => api.get(`${baseURL}/lists/summary`),
     getList: (listId: string) => api.get(`${baseURL}/lists/${listId}`),
     createList: (list: any) => api.post(`${baseURL}/lists`, list),
     updateList: (listId: string, list: any) => api.put(`${baseURL}/lists/${listId}`, list),
@@ -176,6 +217,14 @@ export const apiClient = {
     return api.post('/auth/refresh', { refreshToken })
   },
   
+  logout: (refreshToken: string) => {
+    if (USE_MOCK_API) {
+      return Promise.resolve()
+    }
+    // Revokes the refresh token and the current access token, sent by the request interceptor
+    return api.post('/auth/logout', { refreshToken })
+  },
+  
   validateToken: () => {
     if (USE_MOCK_API) {
       return mockApiService.validateToken()
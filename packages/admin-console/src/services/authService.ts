@@ -75,7 +75,16 @@ class AuthService {
     }
   }
 
-  logout(): void {
+  async logout(): Promise<void> {
+    const refreshToken = localStorage.getItem('refreshToken')
+    if (refreshToken && localStorage.getItem('token')) {
+      try {
+        await apiClient.logout(refreshToken)
+      } catch (error: any) {
+        // The session is cleared locally either way
+        console.log('AuthService logout error:', error)
+      }
+    }
     localStorage.removeItem('token')
     localStorage.removeItem('refreshToken')
   }
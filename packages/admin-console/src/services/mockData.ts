@@ -628,6 +628,18 @@ export const mockApiService = {
     }
   },
 
+  getFormSummaries: async (companyId: string) => {
+    await simulateNetworkDelay()
+    
+    const companyForms = filterByCompany(mockForms, companyId)
+    return {
+      data: companyForms.map(({ fields, settings, ...form }: any) => ({
+        ...form,
+        fieldCount: fields ? fields.length : 0
+      }))
+    }
+  },
+
   getForm: async (companyId: string, formId: string) => {
     await simulateNetworkDelay()
     
@@ -844,6 +856,19 @@ export const mockApiService = {
   },
 
   // Lists endpoints
+  getListSummaries: async (companyId: string) => {
+    await simulateNetworkDelay()
+    
+    return {
+      data: mockLists.map(({ fields, items, ...list }: any) => ({
+        ...list,
+        fieldCount: fields.length,
+        requiredFieldCount: fields.filter((field: any) => field.required).length,
+        itemCount: items.length
+      }))
+    }
+  },
+
   getLists: async (companyId: string) => {
     await simulateNetworkDelay()
     
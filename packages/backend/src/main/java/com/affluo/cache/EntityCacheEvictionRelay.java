@@ -0,0 +1,134 @@
+package com.affluo.cache;
+
+import com.affluo.model.Company;
+import com.affluo.model.Team;
+import com.affluo.model.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPA entity listener relaying Hibernate second-level cache evictions of written users, companies and
+ * teams to the other nodes over Redis pub/sub, since each node's JCache regions are local.
+ *
+ * After the commit, the writing node publishes the entity; the others evict it, its collections and
+ * the cached query results. Delivery is best effort: a node that misses a message keeps the old entry
+ * until its region expires (see application.conf). With cache.l2.enabled=false nothing is relayed.
+ */
+@Component
+@Slf4j
+public class EntityCacheEvictionRelay {
+
+    private static final ChannelTopic CHANNEL = new ChannelTopic("cache:entity-evictions");
+
+    private static final Map<String, Class<?>> ENTITIES = Map.of(
+        User.class.getSimpleName(), User.class,
+        Company.class.getSimpleName(), Company.class,
+        Team.class.getSimpleName(), Team.class);
+
+    private static final String USER_TEAMS = User.class.getName() + ".teams";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public EntityCacheEvictionRelay(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                    ObjectProvider<StringRedisTemplate> redisTemplate,
+                                    ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                    @Value("${cache.l2.enabled:false}") boolean remoteEnabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.redisTemplate = remoteEnabled ? redisTemplate.getIfAvailable() : null;
+
+        if (this.redisTemplate != null) {
+            this.listenerContainer = new RedisMessageListenerContainer();
+            this.listenerContainer.setConnectionFactory(connectionFactory.getObject());
+            this.listenerContainer.addMessageListener((message, pattern) ->
+                onEviction(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+            this.listenerContainer.afterPropertiesSet();
+            this.listenerContainer.start();
+        } else {
+            this.listenerContainer = null;
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityChanged(Object entity) {
+        if (redisTemplate == null || !ENTITIES.containsKey(entity.getClass().getSimpleName())) return;
+
+        Object id = entityManagerFactory.getObject().getPersistenceUnitUtil().getIdentifier(entity);
+        if (id == null) return;
+        String message = entity.getClass().getSimpleName() + "\n" + id + "\n" + nodeId;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(message);
+                }
+            });
+        } else {
+            publish(message);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL.getTopic(), message);
+        } catch (DataAccessException e) {
+            log.warn("Failed to publish second-level cache eviction {}: {}", message.replace('\n', ' '), e.getMessage());
+        }
+    }
+
+    private void onEviction(String message) {
+        String[] parts = message.split("\n");
+        if (parts.length != 3 || parts[2].equals(nodeId)) return;
+        Class<?> type = ENTITIES.get(parts[0]);
+        if (type == null) return;
+        long id;
+        try {
+            id = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.getObject().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(type, id);
+        if (type == User.class) {
+            cache.evictCollectionData(USER_TEAMS, id);
+        } else if (type == Team.class) {
+            // Membership of a removed team is held in the collections of its users
+            cache.evictCollectionData(USER_TEAMS);
+        }
+        // Cached query results on this node never saw the remote write in their update timestamps
+        cache.evictQueryRegions();
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+}
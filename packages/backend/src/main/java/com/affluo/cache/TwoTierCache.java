@@ -0,0 +1,149 @@
+package com.affluo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Read-through cache with a per-node Caffeine tier (L1) in front of an optional shared Redis tier (L2).
+ *
+ * Concurrent misses for one key on a node are coalesced into a single load, and L2 entries get a
+ * jittered TTL so keys written together do not expire together. Invalidations are published through
+ * TwoTierCacheManager so every node drops its L1 copy. Redis failures fall back to the loader.
+ * Cached values are detached snapshots and must not be modified or saved.
+ *
+ * An invalidation replaces the L2 entry with a tombstone for cache.l2.invalidation-hold, and loads only
+ * write L2 when the key is absent. A load that read the old row before the invalidation therefore
+ * cannot put it back into L2, unless it takes longer than the hold.
+ */
+@Slf4j
+public class TwoTierCache<V> {
+
+    // Not valid JSON, so it cannot collide with a cached value
+    static final String TOMBSTONE = "#invalidated";
+
+    private final String name;
+    private final Class<V> type;
+    private final Cache<String, V> local;
+    private final Duration remoteTtl;
+    private final Duration invalidationHold;
+    private final StringRedisTemplate redisTemplate; // null when the Redis tier is disabled
+    private final ObjectMapper objectMapper;
+    private final TwoTierCacheManager manager;
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    TwoTierCache(String name, Class<V> type, long localMaxSize, Duration localTtl, Duration remoteTtl,
+                 Duration invalidationHold, StringRedisTemplate redisTemplate, ObjectMapper objectMapper, TwoTierCacheManager manager,
+                 MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.local = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(localTtl).build();
+        this.remoteTtl = remoteTtl;
+        this.invalidationHold = invalidationHold;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.manager = manager;
+        this.localHits = lookupCounter(meterRegistry, name, "l1");
+        this.remoteHits = lookupCounter(meterRegistry, name, "l2");
+        this.misses = lookupCounter(meterRegistry, name, "miss");
+    }
+
+    /**
+     * Get the value for a key from L1, then L2, then the loader. Absent values are not cached.
+     */
+    public Optional<V> get(String key, Function<String, Optional<V>> loader) {
+        V cached = local.getIfPresent(key);
+        if (cached != null) {
+            localHits.increment();
+            return Optional.of(cached);
+        }
+        return Optional.ofNullable(local.get(key, k -> loadThroughRemote(k, loader)));
+    }
+
+    /**
+     * Drop a key from L2 and from L1 on every node, keeping loads already in flight out of L2 for a while
+     */
+    public void invalidate(String key) {
+        local.invalidate(key);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().set(remoteKey(key), TOMBSTONE, invalidationHold);
+            } catch (DataAccessException e) {
+                log.warn("Failed to delete {} from cache {}: {}", key, name, e.getMessage());
+            }
+        }
+        manager.publishInvalidation(name, key);
+    }
+
+    void invalidateLocal(String key) {
+        local.invalidate(key);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private V loadThroughRemote(String key, Function<String, Optional<V>> loader) {
+        V remote = readRemote(key);
+        if (remote != null) {
+            remoteHits.increment();
+            return remote;
+        }
+
+        misses.increment();
+        V loaded = loader.apply(key).orElse(null);
+        if (loaded != null) {
+            writeRemote(key, loaded);
+        }
+        return loaded;
+    }
+
+    private V readRemote(String key) {
+        if (redisTemplate == null) return null;
+        try {
+            String json = redisTemplate.opsForValue().get(remoteKey(key));
+            return json == null || TOMBSTONE.equals(json) ? null : objectMapper.readValue(json, type);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to read {} from cache {}: {}", key, name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, V value) {
+        if (redisTemplate == null) return;
+        try {
+            long jitter = (long) (remoteTtl.toMillis() * 0.1 * ThreadLocalRandom.current().nextDouble());
+            // Never overwrite a tombstone: this load may have read the row before it was invalidated
+            redisTemplate.opsForValue().setIfAbsent(remoteKey(key), objectMapper.writeValueAsString(value),
+                remoteTtl.plusMillis(jitter));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to write {} to cache {}: {}", key, name, e.getMessage());
+        }
+    }
+
+    private String remoteKey(String key) {
+        return "cache:" + name + ":" + key;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("cache.two_tier.lookups")
+            .description("Two-tier cache lookups by tier that answered")
+            .tag("cache", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.affluo.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates TwoTierCaches and relays their invalidations between nodes over Redis pub/sub.
+ * With cache.l2.enabled=false the caches are node-local Caffeine caches and invalidation stays local.
+ */
+@Component
+@Slf4j
+public class TwoTierCacheManager {
+
+    private static final ChannelTopic CHANNEL = new ChannelTopic("cache:invalidations");
+
+    private final Map<String, TwoTierCache<?>> caches = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration invalidationHold;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    public TwoTierCacheManager(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               ObjectProvider<StringRedisTemplate> redisTemplate,
+                               ObjectProvider<RedisConnectionFactory> connectionFactory,
+                               @Value("${cache.l2.enabled:false}") boolean remoteEnabled,
+                               @Value("${cache.l2.invalidation-hold:10s}") Duration invalidationHold) {
+        this(objectMapper, meterRegistry, remoteEnabled ? redisTemplate.getIfAvailable() : null, invalidationHold);
+
+        if (this.redisTemplate != null) {
+            this.listenerContainer = new RedisMessageListenerContainer();
+            this.listenerContainer.setConnectionFactory(connectionFactory.getObject());
+            this.listenerContainer.addMessageListener((message, pattern) ->
+                onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+            this.listenerContainer.afterPropertiesSet();
+            this.listenerContainer.start();
+        }
+    }
+
+    /**
+     * Create a manager whose invalidations from other nodes are delivered through onInvalidation
+     */
+    TwoTierCacheManager(ObjectMapper objectMapper, MeterRegistry meterRegistry, StringRedisTemplate redisTemplate,
+                        Duration invalidationHold) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+        this.invalidationHold = invalidationHold;
+    }
+
+    public <V> TwoTierCache<V> create(String name, Class<V> type, long localMaxSize, Duration localTtl, Duration remoteTtl) {
+        TwoTierCache<V> cache = new TwoTierCache<>(name, type, localMaxSize, localTtl, remoteTtl,
+            invalidationHold, redisTemplate, objectMapper, this, meterRegistry);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        if (redisTemplate == null) return;
+        try {
+            redisTemplate.convertAndSend(CHANNEL.getTopic(), cacheName + "\n" + key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to publish invalidation of {} in cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    void onInvalidation(String message) {
+        int separator = message.indexOf('\n');
+        if (separator < 0) return;
+        TwoTierCache<?> cache = caches.get(message.substring(0, separator));
+        if (cache != null) {
+            cache.invalidateLocal(message.substring(separator + 1));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+}
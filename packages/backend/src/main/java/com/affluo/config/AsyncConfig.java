@@ -0,0 +1,59 @@
+package com.affluo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${submissions.processing.core-pool-size:4}")
+    private int corePoolSize;
+
+    @Value("${submissions.processing.max-pool-size:8}")
+    private int maxPoolSize;
+
+    @Value("${submissions.processing.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${security.login.threads:2}")
+    private int loginThreads;
+
+    @Value("${security.login.queue-capacity:200}")
+    private int loginQueueCapacity;
+
+    /**
+     * Executor used to hand inventory-affecting submissions to FormSubmissionProcessor
+     * without holding the ingesting request thread.
+     */
+    @Bean(name = "submissionProcessingExecutor")
+    public Executor submissionProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("submission-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded executor for logins, so BCrypt checks during a login storm use a fixed number of cores
+     * instead of every request thread. Logins beyond the queue capacity are rejected.
+     */
+    @Bean(name = "loginExecutor")
+    public Executor loginExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loginThreads);
+        executor.setMaxPoolSize(loginThreads);
+        executor.setQueueCapacity(loginQueueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+        return executor;
+    }
+}
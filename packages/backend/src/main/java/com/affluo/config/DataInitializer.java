@@ -1,6 +1,8 @@
 package com.affluo.config;
 
 import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import com.affluo.repository.mongo.ListItemRepository;
 import com.affluo.repository.mongo.ListRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +20,7 @@ import java.util.Map;
 public class DataInitializer implements CommandLineRunner {
     
     private final ListRepository listRepository;
+    private final ListItemRepository listItemRepository;
     
     @Override
     public void run(String... args) throws Exception {
@@ -96,7 +99,7 @@ public class DataInitializer implements CommandLineRunner {
             ))
         ));
         
-        listRepository.save(productInventory);
+        saveList(productInventory);
         
         // Employee Directory List
         List employeeDirectory = new List();
@@ -149,7 +152,7 @@ public class DataInitializer implements CommandLineRunner {
             ))
         ));
         
-        listRepository.save(employeeDirectory);
+        saveList(employeeDirectory);
         
         // Customer List
         List customerList = new List();
@@ -202,7 +205,20 @@ public class DataInitializer implements CommandLineRunner {
             ))
         ));
         
-        listRepository.save(customerList);
+        saveList(customerList);
+    }
+    
+    /**
+     * Save the list document and its items as separate list_items rows
+     */
+    private void saveList(List list) {
+        java.util.List<List.ListItem> items = list.getItems();
+        list.setItems(null);
+        list.setItemCount((long) items.size());
+        list.setVersion(1L);
+        list.setCompactedVersion(0L);
+        listRepository.save(list);
+        listItemRepository.insert(items.stream().map(item -> ListItemRecord.from(list, item)).toList());
     }
     
     private List.ListField createField(String name, String type, Boolean required, java.util.List<String> options, Integer order) {
@@ -0,0 +1,31 @@
+package com.affluo.config;
+
+import com.affluo.model.ListFormDependency;
+import com.affluo.service.FormDependencyIndex;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the list-to-form dependency index on the first start after it was introduced
+ */
+@Component
+public class FormDependencyBackfill implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final FormDependencyIndex formDependencyIndex;
+
+    public FormDependencyBackfill(MongoTemplate mongoTemplate, FormDependencyIndex formDependencyIndex) {
+        this.mongoTemplate = mongoTemplate;
+        this.formDependencyIndex = formDependencyIndex;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!mongoTemplate.exists(new Query(), ListFormDependency.class)) {
+            formDependencyIndex.rebuild();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.affluo.config;
+
+import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import com.affluo.service.ListItemRetyper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves items still embedded in list documents into the list_items collection, stamps items written
+ * before they carried versions, then converts item values stored before number fields were kept as numbers.
+ *
+ * Items are upserted by ID so an interrupted run can simply be repeated; the embedded array is only
+ * removed from a list once all of its items have been written. Moved and unversioned items get the
+ * list's current version, so delta syncs from any earlier version include them. The conversion only
+ * touches items that still hold text in a number field, so later runs are cheap.
+ */
+@Component
+@Slf4j
+public class ListItemMigration implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final ListItemRetyper listItemRetyper;
+
+    @Value("${lists.items.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${lists.items.migration-batch-size:1000}")
+    private int batchSize;
+
+    public ListItemMigration(MongoTemplate mongoTemplate, ListItemRetyper listItemRetyper) {
+        this.mongoTemplate = mongoTemplate;
+        this.listItemRetyper = listItemRetyper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup) return;
+
+        Query embedded = Query.query(Criteria.where("items.0").exists(true));
+        int migrated = 0;
+        try (CloseableIterator<List> lists = mongoTemplate.stream(embedded, List.class)) {
+            while (lists.hasNext()) {
+                migrate(lists.next());
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated embedded items of {} lists to list_items", migrated);
+        }
+
+        stampVersions();
+        coerceNumberFields();
+    }
+
+    private void stampVersions() {
+        Query unversioned = Query.query(Criteria.where("version").exists(false));
+        long stamped = 0;
+        for (String listId : mongoTemplate.findDistinct(unversioned, "listId", ListItemRecord.class, String.class)) {
+            List list = mongoTemplate.findById(listId, List.class);
+            long version = list != null && list.getVersion() != null ? list.getVersion() : 0L;
+            stamped += mongoTemplate.updateMulti(
+                Query.query(Criteria.where("listId").is(listId).and("version").exists(false)),
+                new Update().set("version", version).set("createdVersion", version),
+                ListItemRecord.class).getModifiedCount();
+        }
+
+        if (stamped > 0) {
+            log.info("Stamped versions on {} list items", stamped);
+        }
+    }
+
+    private void coerceNumberFields() {
+        Query withNumberFields = Query.query(Criteria.where("fields.type").is("number"));
+        withNumberFields.fields().include("companyId").include("fields");
+        long coerced = 0;
+        try (CloseableIterator<List> lists = mongoTemplate.stream(withNumberFields, List.class)) {
+            while (lists.hasNext()) {
+                List list = lists.next();
+                coerced += listItemRetyper.retype(list, list.getFields().stream()
+                    .filter(field -> "number".equals(field.getType()))
+                    .map(List.ListField::getName)
+                    .toList(), null);
+            }
+        }
+
+        if (coerced > 0) {
+            log.info("Converted number field values of {} list items", coerced);
+        }
+    }
+
+    private void migrate(List list) {
+        java.util.List<List.ListItem> items = list.getItems();
+        long version = list.getVersion() != null ? list.getVersion() : 0L;
+        log.info("Migrating {} items of list {}", items.size(), list.getId());
+
+        for (int start = 0; start < items.size(); start += batchSize) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ListItemRecord.class);
+            for (List.ListItem item : items.subList(start, Math.min(start + batchSize, items.size()))) {
+                ListItemRecord record = ListItemRecord.from(list, item);
+                bulk.upsert(Query.query(Criteria.where("_id").is(record.getId())), new Update()
+                    .set("listId", record.getListId())
+                    .set("companyId", record.getCompanyId())
+                    .set("data", record.getData())
+                    .set("createdAt", record.getCreatedAt())
+                    .set("updatedAt", record.getUpdatedAt())
+                    .setOnInsert("version", version)
+                    .setOnInsert("createdVersion", version));
+            }
+            bulk.execute();
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(list.getId())),
+            new Update()
+                .unset("items")
+                .set("itemCount", (long) items.size())
+                .set("updatedAt", LocalDateTime.now()),
+            List.class);
+    }
+}
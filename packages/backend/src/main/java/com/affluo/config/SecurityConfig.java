@@ -2,7 +2,12 @@ package com.affluo.config;
 
 import com.affluo.security.JwtAuthenticationFilter;
 import com.affluo.security.JwtAuthenticationEntryPoint;
+import com.affluo.security.TenantAccessFilter;
+import com.affluo.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -45,7 +50,8 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui/**", "/api-docs/**").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new TenantAccessFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -56,8 +62,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.bcrypt.strength:10}") int strength) {
+        Timer verifyTimer = Timer.builder("auth.password.verify")
+            .description("Time spent verifying a password hash")
+            .register(meterRegistry);
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), verifyTimer);
     }
 
     @Bean
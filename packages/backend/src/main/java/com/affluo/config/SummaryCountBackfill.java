@@ -0,0 +1,60 @@
+package com.affluo.config;
+
+import com.affluo.model.Form;
+import com.affluo.model.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the denormalized field counters of forms and lists stored before the counters existed
+ */
+@Component
+@Slf4j
+public class SummaryCountBackfill implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    public SummaryCountBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query missing = Query.query(Criteria.where("fieldCount").exists(false));
+        missing.fields().include("fields");
+
+        int forms = 0;
+        try (CloseableIterator<Form> cursor = mongoTemplate.stream(missing, Form.class)) {
+            while (cursor.hasNext()) {
+                Form form = cursor.next();
+                form.setFields(form.getFields());
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(form.getId())),
+                    Update.update("fieldCount", form.getFieldCount()), Form.class);
+                forms++;
+            }
+        }
+
+        int lists = 0;
+        try (CloseableIterator<List> cursor = mongoTemplate.stream(missing, List.class)) {
+            while (cursor.hasNext()) {
+                List list = cursor.next();
+                list.setFields(list.getFields());
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(list.getId())),
+                    Update.update("fieldCount", list.getFieldCount()).set("requiredFieldCount", list.getRequiredFieldCount()),
+                    List.class);
+                lists++;
+            }
+        }
+
+        if (forms > 0 || lists > 0) {
+            log.info("Backfilled field counts of {} forms and {} lists", forms, lists);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.affluo.controller;
+
+import com.affluo.model.FormAnalytics;
+import com.affluo.service.FormAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/companies/{companyId}/analytics")
+@RequiredArgsConstructor
+@Slf4j
+public class FormAnalyticsController {
+    
+    private final FormAnalyticsService formAnalyticsService;
+    
+    @GetMapping("/forms/{formId}")
+    public ResponseEntity<FormAnalytics> getFormAnalytics(@PathVariable String companyId, @PathVariable String formId) {
+        log.info("GET /api/companies/{}/analytics/forms/{}", companyId, formId);
+        return formAnalyticsService.getFormAnalytics(companyId, formId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('COMPANY_ADMIN')")
+    public ResponseEntity<Void> backfill(@PathVariable String companyId) {
+        log.info("POST /api/companies/{}/analytics/backfill", companyId);
+        try {
+            formAnalyticsService.backfillCompany(companyId);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalStateException e) {
+            log.warn("Rejected analytics backfill for company {}: {}", companyId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
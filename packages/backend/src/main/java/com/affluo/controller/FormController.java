@@ -1,12 +1,19 @@
 package com.affluo.controller;
 
+import com.affluo.dto.FormSummary;
 import com.affluo.model.Form;
+import com.affluo.service.FormRenderCache;
 import com.affluo.service.FormService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +25,7 @@ import java.util.Optional;
 public class FormController {
 
     private final FormService formService;
+    private final FormRenderCache formRenderCache;
 
     @GetMapping
     public ResponseEntity<List<Form>> getForms(@PathVariable String companyId) {
@@ -26,6 +34,12 @@ public class FormController {
         return ResponseEntity.ok(forms);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<List<FormSummary>> getFormSummaries(@PathVariable String companyId) {
+        log.info("GET /api/companies/{}/forms/summary", companyId);
+        return ResponseEntity.ok(formService.getFormSummaries(companyId));
+    }
+
     @GetMapping("/{formId}")
     public ResponseEntity<Form> getForm(@PathVariable String companyId, @PathVariable String formId) {
         log.info("GET /api/companies/{}/forms/{}", companyId, formId);
@@ -34,6 +48,41 @@ public class FormController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{formId}/render")
+    public ResponseEntity<byte[]> renderForm(@PathVariable String companyId,
+                                             @PathVariable String formId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/companies/{}/forms/{}/render", companyId, formId);
+        
+        // Revalidation of a cached rendering is answered from memory
+        Optional<String> cachedEtag = formRenderCache.getCachedEtag(companyId, formId);
+        if (cachedEtag.isPresent() && etagMatches(ifNoneMatch, cachedEtag.get())) {
+            return notModified(cachedEtag.get());
+        }
+        
+        Optional<FormRenderCache.RenderedForm> rendered = formRenderCache.getRenderedForm(companyId, formId);
+        if (rendered.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        FormRenderCache.RenderedForm form = rendered.get();
+        if (etagMatches(ifNoneMatch, form.etag())) {
+            return notModified(form.etag());
+        }
+        
+        boolean gzip = form.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(form.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? form.gzip() : form.json());
+    }
+
     @PostMapping
     public ResponseEntity<Form> createForm(@PathVariable String companyId, @RequestBody Form form) {
         log.info("POST /api/companies/{}/forms", companyId);
@@ -71,4 +120,19 @@ public class FormController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                .anyMatch(candidate -> candidate.equals(etag) || candidate.equals("*"));
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
 }
@@ -0,0 +1,109 @@
+package com.affluo.controller;
+
+import com.affluo.dto.CreateSubmissionRequest;
+import com.affluo.dto.FormSubmissionSummary;
+import com.affluo.dto.SubmissionIngestResponse;
+import com.affluo.service.FormSubmissionService;
+import com.affluo.service.SubmissionSearchService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/companies/{companyId}/forms/{formId}/submissions")
+@RequiredArgsConstructor
+@Slf4j
+public class FormSubmissionController {
+
+    private final FormSubmissionService formSubmissionService;
+    private final SubmissionSearchService submissionSearchService;
+    
+    private static final int MAX_SEARCH_RESULTS = 200;
+
+    @PostMapping
+    public ResponseEntity<SubmissionIngestResponse.SubmissionResult> createSubmission(@PathVariable String companyId,
+                                                                                      @PathVariable String formId,
+                                                                                      @RequestBody CreateSubmissionRequest request,
+                                                                                      Principal principal) {
+        log.info("POST /api/companies/{}/forms/{}/submissions", companyId, formId);
+        try {
+            SubmissionIngestResponse.SubmissionResult result =
+                formSubmissionService.createSubmission(companyId, formId, request, principal.getName());
+            if (!"CREATED".equals(result.getStatus())) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.error("Error creating submission: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SubmissionIngestResponse> createSubmissions(@PathVariable String companyId,
+                                                                      @PathVariable String formId,
+                                                                      @RequestBody List<CreateSubmissionRequest> requests,
+                                                                      Principal principal) {
+        log.info("POST /api/companies/{}/forms/{}/submissions/bulk ({} submissions)", companyId, formId, requests.size());
+        try {
+            SubmissionIngestResponse response =
+                formSubmissionService.ingestSubmissions(companyId, formId, requests, principal.getName());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Error ingesting submissions: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SubmissionIngestResponse> streamSubmissions(@PathVariable String companyId,
+                                                                      @PathVariable String formId,
+                                                                      HttpServletRequest request,
+                                                                      Principal principal) {
+        log.info("POST /api/companies/{}/forms/{}/submissions/bulk (ndjson)", companyId, formId);
+        try {
+            SubmissionIngestResponse response = formSubmissionService.ingestSubmissionStream(
+                companyId, formId, request.getInputStream(), principal.getName());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Error ingesting submission stream: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to read submission stream: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<FormSubmissionSummary>> searchSubmissions(@PathVariable String companyId,
+                                                                         @PathVariable String formId,
+                                                                         @RequestParam String field,
+                                                                         @RequestParam String value,
+                                                                         @RequestParam(defaultValue = "false") boolean prefix,
+                                                                         @RequestParam(defaultValue = "50") int limit) {
+        log.info("GET /api/companies/{}/forms/{}/submissions/search?field={}", companyId, formId, field);
+        try {
+            List<FormSubmissionSummary> results = submissionSearchService.search(companyId, formId, field, value,
+                prefix, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            log.error("Error searching submissions: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Void> reindexSubmissions(@PathVariable String companyId,
+                                                   @PathVariable String formId) {
+        log.info("POST /api/companies/{}/forms/{}/submissions/search/reindex", companyId, formId);
+        submissionSearchService.reindexFormAsync(companyId, formId);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,8 +1,11 @@
 package com.affluo.controller;
 
 import com.affluo.dto.InventoryAdjustmentRequest;
+import com.affluo.model.DeadLetterSubmission;
 import com.affluo.model.InventoryItem;
 import com.affluo.model.InventoryMovement;
+import com.affluo.ratelimit.TenantAdmissionService;
+import com.affluo.service.InventoryRetryService;
 import com.affluo.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +13,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +25,8 @@ import java.util.Map;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final InventoryRetryService inventoryRetryService;
+    private final TenantAdmissionService tenantAdmissionService;
     
     // Inventory Items
     
@@ -94,6 +100,19 @@ public class InventoryController {
         return ResponseEntity.ok(movements);
     }
     
+    @GetMapping("/movements/{movementId}/submission-data")
+    public ResponseEntity<Map<String, Object>> getMovementSubmissionData(@PathVariable String companyId, @PathVariable String movementId) {
+        log.info("GET /api/companies/{}/inventory/movements/{}/submission-data", companyId, movementId);
+        try {
+            return inventoryService.getMovementSubmissionData(companyId, movementId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("Error resolving movement submission data: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // Manual Inventory Adjustments
     
     @PostMapping("/adjustments")
@@ -103,6 +122,9 @@ public class InventoryController {
         // Ensure the request is for the correct company
         request.setCompanyId(companyId);
         
+        // Throttling is mapped to 429 by RateLimitExceptionHandler, so it is checked outside the catch-all below
+        tenantAdmissionService.admit(companyId, request.getItems() != null ? request.getItems().size() : 1);
+        
         try {
             inventoryService.processInventoryAdjustment(request);
             return ResponseEntity.ok().build();
@@ -115,6 +137,27 @@ public class InventoryController {
         }
     }
     
+    // Dead Letters
+    
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<DeadLetterSubmission>> getDeadLetters(@PathVariable String companyId) {
+        log.info("GET /api/companies/{}/inventory/dead-letters", companyId);
+        List<DeadLetterSubmission> deadLetters = inventoryRetryService.getDeadLetters(companyId);
+        return ResponseEntity.ok(deadLetters);
+    }
+    
+    @PostMapping("/dead-letters/{deadLetterId}/requeue")
+    public ResponseEntity<Void> requeueDeadLetter(@PathVariable String companyId, @PathVariable String deadLetterId, Principal principal) {
+        log.info("POST /api/companies/{}/inventory/dead-letters/{}/requeue", companyId, deadLetterId);
+        try {
+            inventoryRetryService.requeue(companyId, deadLetterId, principal.getName());
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error requeuing dead letter: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Inventory Reports
     
     @GetMapping("/reports/stock-summary")
@@ -2,14 +2,26 @@ package com.affluo.controller;
 
 import com.affluo.dto.AddListItemRequest;
 import com.affluo.dto.CreateListRequest;
+import com.affluo.dto.ListChanges;
+import com.affluo.dto.ListImportStatus;
+import com.affluo.dto.ListItemPage;
+import com.affluo.dto.ListItemQuery;
+import com.affluo.dto.ListSummary;
 import com.affluo.dto.UpdateListRequest;
 import com.affluo.model.List;
+import com.affluo.service.ListImportService;
+import com.affluo.service.ListItemQueryService;
 import com.affluo.service.ListService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -19,6 +31,10 @@ import java.util.List;
 public class ListController {
     
     private final ListService listService;
+    private final ListItemQueryService listItemQueryService;
+    private final ListImportService listImportService;
+    
+    private static final int MAX_PAGE_SIZE = 1000;
     
     @GetMapping
     public ResponseEntity<List<List>> getLists(@PathVariable String companyId) {
@@ -27,10 +43,16 @@ public class ListController {
         return ResponseEntity.ok(lists);
     }
     
+    @GetMapping("/summary")
+    public ResponseEntity<List<ListSummary>> getListSummaries(@PathVariable String companyId) {
+        log.info("GET /api/companies/{}/lists/summary", companyId);
+        return ResponseEntity.ok(listService.getListSummaries(companyId));
+    }
+    
     @GetMapping("/{listId}")
     public ResponseEntity<List> getList(@PathVariable String companyId, @PathVariable String listId) {
         log.info("GET /api/companies/{}/lists/{}", companyId, listId);
-        return listService.getListById(companyId, listId)
+        return listService.getListWithItems(companyId, listId)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -71,6 +93,50 @@ public class ListController {
         }
     }
     
+    @GetMapping("/{listId}/items")
+    public ResponseEntity<ListItemPage> getListItems(@PathVariable String companyId,
+                                                     @PathVariable String listId,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(defaultValue = "100") int size) {
+        log.info("GET /api/companies/{}/lists/{}/items", companyId, listId);
+        try {
+            ListItemPage page = listService.getListItems(companyId, listId, after, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Error getting list items: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/{listId}/changes")
+    public ResponseEntity<ListChanges> getListChanges(@PathVariable String companyId,
+                                                      @PathVariable String listId,
+                                                      @RequestParam long since,
+                                                      @RequestParam(defaultValue = "1000") int limit) {
+        log.info("GET /api/companies/{}/lists/{}/changes?since={}", companyId, listId, since);
+        try {
+            ListChanges changes = listService.getListChanges(companyId, listId, since, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            log.error("Error getting list changes: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/{listId}/items/query")
+    public ResponseEntity<ListItemPage> queryListItems(@PathVariable String companyId,
+                                                       @PathVariable String listId,
+                                                       @RequestBody ListItemQuery query) {
+        log.info("POST /api/companies/{}/lists/{}/items/query", companyId, listId);
+        try {
+            int size = query.getSize() != null ? Math.max(1, Math.min(query.getSize(), MAX_PAGE_SIZE)) : 100;
+            return ResponseEntity.ok(listItemQueryService.query(companyId, listId, query, size));
+        } catch (IllegalArgumentException e) {
+            log.error("Error querying list items: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping("/{listId}/items")
     public ResponseEntity<List.ListItem> addListItem(@PathVariable String companyId, @PathVariable String listId, @RequestBody AddListItemRequest request) {
         log.info("POST /api/companies/{}/lists/{}/items", companyId, listId);
@@ -95,11 +161,60 @@ public class ListController {
         }
     }
     
+    @PostMapping(value = "/{listId}/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ListImportStatus> importListItems(@PathVariable String companyId,
+                                                            @PathVariable String listId,
+                                                            @RequestParam(required = false) String jobId,
+                                                            HttpServletRequest request) {
+        log.info("POST /api/companies/{}/lists/{}/import", companyId, listId);
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+        try {
+            ListImportStatus status = listImportService.importItems(companyId, listId, request.getInputStream(), csv, jobId);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            log.error("Error importing list items: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to read list import stream: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{listId}/imports/{jobId}")
+    public ResponseEntity<ListImportStatus> getImportStatus(@PathVariable String companyId, @PathVariable String listId, @PathVariable String jobId) {
+        log.info("GET /api/companies/{}/lists/{}/imports/{}", companyId, listId, jobId);
+        return listImportService.getImportStatus(companyId, listId, jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{listId}/export")
+    public ResponseEntity<StreamingResponseBody> exportListItems(@PathVariable String companyId,
+                                                                 @PathVariable String listId,
+                                                                 @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("GET /api/companies/{}/lists/{}/export?format={}", companyId, listId, format);
+        if (listService.getListById(companyId, listId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = outputStream -> listImportService.exportItems(companyId, listId, outputStream, csv);
+        return ResponseEntity.ok()
+            .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + listId + (csv ? ".csv" : ".ndjson") + "\"")
+            .body(body);
+    }
+    
     @GetMapping("/{listId}/fields/{fieldName}/values")
-    public ResponseEntity<List<String>> getListFieldValues(@PathVariable String companyId, @PathVariable String listId, @PathVariable String fieldName) {
+    public ResponseEntity<List<String>> getListFieldValues(@PathVariable String companyId, @PathVariable String listId, @PathVariable String fieldName,
+                                                           @RequestParam(required = false) String prefix,
+                                                           @RequestParam(required = false) Integer limit) {
         log.info("GET /api/companies/{}/lists/{}/fields/{}/values", companyId, listId, fieldName);
         try {
-            List<String> values = listService.getListFieldValues(companyId, listId, fieldName);
+            List<String> values = prefix == null && limit == null
+                ? listService.getListFieldValues(companyId, listId, fieldName)
+                : listItemQueryService.typeahead(companyId, listId, fieldName, prefix,
+                    limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : 20);
             return ResponseEntity.ok(values);
         } catch (IllegalArgumentException e) {
             log.error("Error getting list field values: {}", e.getMessage());
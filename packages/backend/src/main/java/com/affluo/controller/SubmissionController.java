@@ -0,0 +1,51 @@
+package com.affluo.controller;
+
+import com.affluo.dto.FormSubmissionSummary;
+import com.affluo.model.FormSubmission;
+import com.affluo.service.FormSubmissionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/companies/{companyId}/submissions")
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionController {
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    private final FormSubmissionService formSubmissionService;
+    
+    @GetMapping
+    public ResponseEntity<Page<FormSubmissionSummary>> getSubmissions(
+            @PathVariable String companyId,
+            @RequestParam(required = false) String formId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String inventoryStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        log.info("GET /api/companies/{}/submissions", companyId);
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        Page<FormSubmissionSummary> submissions = formSubmissionService.getSubmissionSummaries(
+            companyId, formId, status, inventoryStatus, submittedFrom, submittedTo, pageable);
+        return ResponseEntity.ok(submissions);
+    }
+    
+    @GetMapping("/{submissionId}")
+    public ResponseEntity<FormSubmission> getSubmission(@PathVariable String companyId, @PathVariable String submissionId) {
+        log.info("GET /api/companies/{}/submissions/{}", companyId, submissionId);
+        return formSubmissionService.getSubmission(companyId, submissionId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,20 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateSubmissionRequest {
+    private Map<String, Object> data;
+    private String status; // DRAFT, SUBMITTED (defaults to SUBMITTED)
+    private String submittedBy;
+    private String submittedByEmail;
+    private LocalDateTime submittedAt; // Device capture time for offline submissions
+    private Map<String, Object> metadata;
+}
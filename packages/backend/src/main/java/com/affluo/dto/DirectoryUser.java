@@ -0,0 +1,33 @@
+package com.affluo.dto;
+
+import com.affluo.model.Team;
+import com.affluo.model.User;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cacheable view of a user for the refresh and admission paths. Deliberately has no password hash,
+ * since it is stored in the shared Redis tier.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryUser {
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private User.UserRole role;
+    private String companyId;
+    private List<Long> teamIds;
+    
+    public static DirectoryUser from(User user) {
+        return new DirectoryUser(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+            user.getLastName(), user.getRole(), user.getCompanyId(),
+            user.getTeams() == null ? List.of() : user.getTeams().stream().map(Team::getId).toList());
+    }
+}
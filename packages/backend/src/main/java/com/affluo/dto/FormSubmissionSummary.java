@@ -0,0 +1,26 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Submission row for list views, without the data, metadata and inventoryAdjustments payloads
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormSubmissionSummary {
+    private String id;
+    private String formId;
+    private String status;
+    private String inventoryStatus;
+    private Boolean affectsInventory;
+    private String submittedBy;
+    private String submittedByEmail;
+    private LocalDateTime submittedAt;
+    private String processedBy;
+    private LocalDateTime processedAt;
+}
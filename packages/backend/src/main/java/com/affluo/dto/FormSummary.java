@@ -0,0 +1,23 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Form row for index pages, read with a projection that leaves out fields and settings
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormSummary {
+    private String id;
+    private String name;
+    private String description;
+    private String status;
+    private Integer fieldCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
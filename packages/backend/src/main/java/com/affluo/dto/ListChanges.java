@@ -0,0 +1,24 @@
+package com.affluo.dto;
+
+import com.affluo.model.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Item changes of a list between two versions. When resyncRequired is set the client must refetch
+ * the whole list; when hasMore is set it should call again with since = version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListChanges {
+    private String listId;
+    private Long since;
+    private Long version;
+    private boolean resyncRequired;
+    private boolean hasMore;
+    private java.util.List<List.ListItem> added;
+    private java.util.List<List.ListItem> updated;
+    private java.util.List<String> removed;
+}
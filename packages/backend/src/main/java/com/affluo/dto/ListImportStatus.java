@@ -0,0 +1,25 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress of a streaming list import, readable while the upload is still running
+ */
+@Data
+@NoArgsConstructor
+public class ListImportStatus {
+    private String jobId;
+    private String listId;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private List<String> errors = new CopyOnWriteArrayList<>(); // first errors only, safe to read while the import runs
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.affluo.dto;
+
+import com.affluo.model.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One page of list items in ID order. Pass nextCursor as "after" to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListItemPage {
+    private java.util.List<List.ListItem> items;
+    private String nextCursor; // null on the last page
+    private Long totalItems;
+}
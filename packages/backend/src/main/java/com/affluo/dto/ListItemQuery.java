@@ -0,0 +1,32 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filter, sort and keyset paging of list items over the list's declared fields
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListItemQuery {
+    private List<Filter> filters;
+    private String sortField; // declared field name, defaults to item ID order
+    private String sortDirection; // ASC or DESC
+    private String cursor; // nextCursor of the previous page
+    private Integer size;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        private String field;
+        private String op; // eq, prefix, range
+        private Object value; // eq and prefix
+        private Object from; // range lower bound, inclusive
+        private Object to; // range upper bound, inclusive
+    }
+}
@@ -0,0 +1,24 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List row for index pages, read with a projection that leaves out fields and items
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListSummary {
+    private String id;
+    private String name;
+    private String description;
+    private Integer fieldCount;
+    private Integer requiredFieldCount;
+    private Long itemCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.affluo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionIngestResponse {
+    private int accepted;
+    private int rejected;
+    private List<SubmissionResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubmissionResult {
+        private int index; // Position of the submission in the uploaded batch
+        private String id; // Assigned submission ID, null when rejected
+        private String status; // CREATED, REJECTED, FAILED
+        private List<String> errors;
+    }
+}
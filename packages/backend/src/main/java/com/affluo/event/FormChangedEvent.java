@@ -0,0 +1,7 @@
+package com.affluo.event;
+
+/**
+ * Published after a form definition was updated or deleted, or a list it reads options from changed
+ */
+public record FormChangedEvent(String companyId, String formId) {
+}
@@ -0,0 +1,7 @@
+package com.affluo.event;
+
+/**
+ * Published after a list or its items were created, changed or deleted
+ */
+public record ListChangedEvent(String companyId, String listId) {
+}
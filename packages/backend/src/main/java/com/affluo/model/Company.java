@@ -1,15 +1,22 @@
 package com.affluo.model;
 
+import com.affluo.cache.EntityCacheEvictionRelay;
+import com.affluo.service.DirectoryCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "directory.companies")
+@EntityListeners({DirectoryCacheInvalidator.class, EntityCacheEvictionRelay.class})
 @Table(name = "companies")
 @Data
 @NoArgsConstructor
@@ -38,6 +45,16 @@ public class Company {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
+    // Admission limits for submission processing, null falls back to the configured defaults
+    @Column(name = "submission_rate_limit")
+    private Double submissionRateLimit; // submissions per second, 0 blocks submissions
+    
+    @Column(name = "submission_burst")
+    private Integer submissionBurst;
+    
+    @Column(name = "max_queued_submissions")
+    private Integer maxQueuedSubmissions;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
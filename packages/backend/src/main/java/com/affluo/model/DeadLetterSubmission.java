@@ -0,0 +1,36 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "inventory_dead_letters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterSubmission {
+    
+    @Id
+    private String id; // Same as the form submission ID
+    
+    @Indexed
+    private String companyId;
+    
+    private String formId;
+    private String formSubmissionId;
+    
+    // Failure details
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime submittedAt;
+    private LocalDateTime deadLetteredAt;
+    
+    // Requeue tracking
+    private String requeuedBy;
+    private LocalDateTime requeuedAt;
+}
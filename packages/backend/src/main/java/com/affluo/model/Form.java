@@ -1,5 +1,6 @@
 package com.affluo.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -28,12 +29,19 @@ public class Form {
     private String status; // DRAFT, PUBLISHED, ARCHIVED
     
     private List<FormField> fields;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer fieldCount; // Kept in step with fields for summary projections
     private Map<String, Object> settings;
     
     private String createdBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    public void setFields(List<FormField> fields) {
+        this.fields = fields;
+        this.fieldCount = fields != null ? fields.size() : 0;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -47,6 +55,7 @@ public class Form {
         private Map<String, Object> options;
         private DataSource dataSource; // New field for list data sources
         private Integer order;
+        private Boolean searchable; // Maintain a search index over submitted values of this field
     }
     
     @Data
@@ -0,0 +1,49 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Per-form submission aggregates, maintained incrementally as submissions arrive.
+ * Map keys (field IDs, option values) are stored encoded with MongoKeys.
+ */
+@Document(collection = "form_analytics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormAnalytics {
+    
+    @Id
+    private String id; // Same as the form ID
+    
+    @Indexed
+    private String companyId;
+    
+    private Long totalSubmissions;
+    private Map<String, Map<String, Long>> optionCounts; // fieldId -> option -> count
+    private Map<String, NumericStats> numericStats; // fieldId -> stats
+    private Map<String, Long> dailyCounts; // yyyy-MM-dd -> count
+    
+    private LocalDateTime updatedAt;
+    private LocalDateTime rebuiltAt;
+    private Long generation; // Bumped by every rebuild, missing on documents that were never rebuilt
+    private LocalDateTime rebuildingSince; // Set while a rebuild runs
+    private LocalDateTime rebuildCompletedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NumericStats {
+        private Long count;
+        private Double sum;
+        private Double min;
+        private Double max;
+    }
+}
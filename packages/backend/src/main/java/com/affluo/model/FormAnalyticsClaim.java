@@ -0,0 +1,31 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records which analytics generation a submission has been counted into, so live recording and a
+ * concurrent rebuild never both count it. Only needed around a rebuild, so claims expire.
+ */
+@Document(collection = "form_analytics_claims")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormAnalyticsClaim {
+    
+    @Id
+    private String id; // Same as the submission ID
+    
+    private String formId;
+    private Long generation; // FormAnalytics generation the submission was counted into
+    private String token; // Identifies the recorder that won the claim
+    
+    @Indexed(expireAfter = "2d")
+    private LocalDateTime claimedAt;
+}
@@ -5,6 +5,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
@@ -12,6 +14,13 @@ import java.util.List;
 import java.util.Map;
 
 @Document(collection = "form_submissions")
+@CompoundIndexes({
+    @CompoundIndex(name = "inventory_retry_idx", def = "{'inventoryStatus': 1, 'nextInventoryAttemptAt': 1}"),
+    @CompoundIndex(name = "company_submitted_idx", def = "{'companyId': 1, 'submittedAt': -1}"),
+    @CompoundIndex(name = "company_form_submitted_idx", def = "{'companyId': 1, 'formId': 1, 'submittedAt': -1}"),
+    @CompoundIndex(name = "company_status_submitted_idx", def = "{'companyId': 1, 'status': 1, 'submittedAt': -1}"),
+    @CompoundIndex(name = "company_inventory_status_submitted_idx", def = "{'companyId': 1, 'inventoryStatus': 1, 'submittedAt': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,7 +52,9 @@ public class FormSubmission {
     // Inventory tracking
     private Boolean affectsInventory; // Whether this submission affects inventory
     private List<InventoryAdjustment> inventoryAdjustments; // List of inventory changes
-    private String inventoryStatus; // PENDING, PROCESSED, FAILED
+    private String inventoryStatus; // PENDING, PROCESSED, FAILED, SKIPPED, DEAD_LETTERED
+    private Integer inventoryAttempts; // Processing attempts made by the retry scheduler
+    private LocalDateTime nextInventoryAttemptAt; // When the retry scheduler may pick this submission up
     
     // Audit trail
     private LocalDateTime createdAt;
@@ -63,7 +74,7 @@ public class FormSubmission {
         private Integer quantity;
         private String adjustmentType; // IN, OUT, ADJUSTMENT
         private String reason; // SALE, PURCHASE, DAMAGE, etc.
-        private Map<String, Object> formData; // Relevant form field data
+        private Map<String, Object> formData; // Form data of this line only (whole payload when inventory.payload-storage=full)
         private Boolean processed;
         private String processingError;
     }
@@ -9,7 +9,9 @@ import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Document(collection = "inventory_items")
 @Data
@@ -61,4 +63,25 @@ public class InventoryItem {
     private BigDecimal totalValue; // currentStock * unitPrice
     private LocalDateTime lastMovementDate;
     private Integer totalMovements; // Count of inventory movements
+    
+    // Submissions applied to currentStock within inventory.idempotency.applied-retention, written with the stock change
+    private List<AppliedSubmission> appliedSubmissions;
+    
+    public Optional<AppliedSubmission> findAppliedSubmission(String formSubmissionId) {
+        if (appliedSubmissions == null) return Optional.empty();
+        return appliedSubmissions.stream()
+            .filter(applied -> formSubmissionId.equals(applied.getFormSubmissionId()))
+            .findFirst();
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AppliedSubmission {
+        private String formSubmissionId;
+        private String movementId;
+        private Integer stockBefore;
+        private Integer stockAfter;
+        private LocalDateTime appliedAt;
+    }
 }
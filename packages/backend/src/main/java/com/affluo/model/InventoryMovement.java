@@ -5,6 +5,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.math.BigDecimal;
@@ -12,6 +13,8 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Document(collection = "inventory_movements")
+@CompoundIndex(name = "submission_item_unique_idx", def = "{'formSubmissionId': 1, 'inventoryItemId': 1}",
+        unique = true, partialFilter = "{'formSubmissionId': {$exists: true}}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -56,7 +59,7 @@ public class InventoryMovement {
     private LocalDateTime performedAt;
     
     // Additional metadata
-    private Map<String, Object> metadata; // Form-specific data, custom fields, etc.
+    private Map<String, Object> metadata; // Form-specific data; empty for form movements unless inventory.payload-storage=full
     
     // Audit trail
     private String createdBy;
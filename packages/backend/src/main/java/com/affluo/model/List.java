@@ -1,5 +1,6 @@
 package com.affluo.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -27,11 +28,27 @@ public class List {
     private String description;
     
     private List<ListField> fields;
-    private List<ListItem> items;
+    private List<ListItem> items; // Rows live in list_items; only populated on API responses and unmigrated lists
+    private Long itemCount;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer fieldCount; // Kept in step with fields for summary projections
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer requiredFieldCount;
+    private Long version; // Incremented on every change to the list or its items
+    private Long compactedVersion; // Changes up to this version are no longer available as deltas
+    private List<PendingVersion> pendingVersions; // Versions claimed by writes whose items are not all written yet
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    public void setFields(List<ListField> fields) {
+        this.fields = fields;
+        this.fieldCount = fields != null ? fields.size() : 0;
+        this.requiredFieldCount = fields != null
+            ? (int) fields.stream().filter(field -> Boolean.TRUE.equals(field.getRequired())).count()
+            : 0;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -43,6 +60,14 @@ public class List {
         private Integer order;
     }
     
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PendingVersion {
+        private Long version;
+        private LocalDateTime startedAt;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,30 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks one field of a List as having a complete set of ListValueCount documents.
+ * Item writes only maintain counts of marked fields; unmarked fields are rebuilt on read.
+ */
+@Document(collection = "list_field_indexes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListFieldIndex {
+    
+    @Id
+    private String id; // listId:field
+    
+    @Indexed
+    private String listId;
+    private String field;
+    
+    private LocalDateTime rebuiltAt;
+}
@@ -0,0 +1,25 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Set;
+
+/**
+ * Reverse index entry: the forms that read options from a list through Form.DataSource.listId
+ */
+@Document(collection = "list_form_dependencies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListFormDependency {
+    
+    @Id
+    private String id; // listId
+    
+    private String companyId;
+    private Set<String> formIds;
+}
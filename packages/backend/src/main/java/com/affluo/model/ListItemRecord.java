@@ -0,0 +1,50 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A single row of a List, stored as its own document so rows can be inserted, removed and paged
+ * without rewriting the list document.
+ */
+@Document(collection = "list_items")
+@CompoundIndexes({
+    @CompoundIndex(name = "list_item_idx", def = "{'listId': 1, '_id': 1}"),
+    @CompoundIndex(name = "list_item_version_idx", def = "{'listId': 1, 'version': 1}")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListItemRecord {
+    
+    @Id
+    private String id;
+    
+    private String listId;
+    private String companyId;
+    
+    private Map<String, Object> data; // dynamic field values, numbers stored as numbers for declared number fields
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    private Long version; // List version of the last change to this item
+    private Long createdVersion; // List version that added this item
+    
+    public static ListItemRecord from(List list, List.ListItem item) {
+        return new ListItemRecord(item.getId(), list.getId(), list.getCompanyId(), item.getData(),
+            item.getCreatedAt(), item.getUpdatedAt(), list.getVersion(), list.getVersion());
+    }
+    
+    public List.ListItem toListItem() {
+        return new List.ListItem(id, data, createdAt, updatedAt);
+    }
+}
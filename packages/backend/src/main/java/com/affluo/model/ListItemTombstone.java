@@ -0,0 +1,32 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker for a removed list item, kept until compaction so delta sync can report the removal
+ */
+@Document(collection = "list_item_tombstones")
+@CompoundIndex(name = "list_version_idx", def = "{'listId': 1, 'version': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListItemTombstone {
+    
+    @Id
+    private String id;
+    
+    private String listId;
+    private String itemId;
+    private Long version; // List version of the removal
+    
+    @Indexed
+    private LocalDateTime removedAt;
+}
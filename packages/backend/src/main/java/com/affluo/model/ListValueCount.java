@@ -0,0 +1,29 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+/**
+ * Number of items of a List holding one value in one field.
+ * Documents whose count drops to zero or below are removed.
+ */
+@Document(collection = "list_value_counts")
+@CompoundIndex(name = "list_field_value_unique_idx", def = "{'listId': 1, 'field': 1, 'value': 1}", unique = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListValueCount {
+    
+    @Id
+    private String id;
+    
+    private String listId;
+    private String field;
+    private String value;
+    
+    private Long count;
+}
@@ -0,0 +1,42 @@
+package com.affluo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+/**
+ * One indexed value of a searchable form field. Values are stored normalized
+ * (trimmed, lower case, truncated) so exact and prefix lookups both use the compound index.
+ */
+@Document(collection = "submission_search_index")
+@CompoundIndexes({
+    @CompoundIndex(name = "field_value_idx", def = "{'companyId': 1, 'formId': 1, 'fieldId': 1, 'value': 1, 'submittedAt': -1}"),
+    // Checkbox answers index one entry per selected value, so the value is part of the key
+    @CompoundIndex(name = "submission_field_value_unique_idx",
+        def = "{'formId': 1, 'submissionId': 1, 'fieldId': 1, 'value': 1}", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSearchEntry {
+    
+    @Id
+    private String id;
+    
+    private String companyId;
+    private String formId;
+    private String fieldId;
+    private String value;
+    
+    @Indexed
+    private String submissionId;
+    private LocalDateTime submittedAt;
+    private LocalDateTime indexedAt; // Last time live indexing or a reindex wrote the entry
+}
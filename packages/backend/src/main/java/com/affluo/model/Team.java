@@ -1,15 +1,22 @@
 package com.affluo.model;
 
+import com.affluo.cache.EntityCacheEvictionRelay;
+import com.affluo.service.DirectoryCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "directory.teams")
+@EntityListeners({DirectoryCacheInvalidator.class, EntityCacheEvictionRelay.class})
 @Table(name = "teams")
 @Data
 @NoArgsConstructor
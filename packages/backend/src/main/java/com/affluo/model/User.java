@@ -1,9 +1,13 @@
 package com.affluo.model;
 
+import com.affluo.cache.EntityCacheEvictionRelay;
+import com.affluo.service.DirectoryCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +15,9 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "directory.users")
+@EntityListeners({DirectoryCacheInvalidator.class, EntityCacheEvictionRelay.class})
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -55,6 +62,7 @@ public class User {
     private LocalDateTime updatedAt;
     
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "directory.user-teams")
     @JoinTable(
         name = "user_teams",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,75 @@
+package com.affluo.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits login attempts per username and per client IP before any password is checked.
+ *
+ * The per-IP budget is generous because a site's devices often share one address at shift start;
+ * the per-username budget is tight and stops password guessing against a single account.
+ */
+@Service
+@Slf4j
+public class LoginThrottle {
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+
+    private final double usernameRate;
+    private final int usernameBurst;
+    private final double ipRate;
+    private final int ipBurst;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login.username-rate:0.2}") double usernameRate,
+                         @Value("${security.login.username-burst:5}") int usernameBurst,
+                         @Value("${security.login.ip-rate:10}") double ipRate,
+                         @Value("${security.login.ip-burst:200}") int ipBurst) {
+        this.meterRegistry = meterRegistry;
+        this.usernameRate = usernameRate;
+        this.usernameBurst = usernameBurst;
+        this.ipRate = ipRate;
+        this.ipBurst = ipBurst;
+        this.usernameBuckets = Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(Duration.ofMinutes(30)).build();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(Duration.ofMinutes(30)).build();
+    }
+
+    /**
+     * Admit one login attempt
+     *
+     * @throws RateLimitExceededException when the username or the client IP is over its attempt budget
+     */
+    public void admit(String username, String clientIp) {
+        TokenBucket ipBucket = ipBuckets.get(clientIp, ip -> new TokenBucket(ipRate, ipBurst));
+        long waitNanos = ipBucket.tryAcquire(1);
+        if (waitNanos > 0) {
+            throttled("ip");
+            throw new RateLimitExceededException("Too many login attempts from " + clientIp,
+                TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+
+        String key = username == null ? "" : username.toLowerCase(Locale.ROOT);
+        TokenBucket userBucket = usernameBuckets.get(key, name -> new TokenBucket(usernameRate, usernameBurst));
+        waitNanos = userBucket.tryAcquire(1);
+        if (waitNanos > 0) {
+            throttled("username");
+            throw new RateLimitExceededException("Too many login attempts for user " + username,
+                TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+
+    private void throttled(String reason) {
+        log.debug("Throttled login attempt ({})", reason);
+        meterRegistry.counter("auth.login.throttled", "reason", reason).increment();
+    }
+}
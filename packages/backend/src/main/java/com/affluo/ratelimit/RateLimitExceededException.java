@@ -0,0 +1,17 @@
+package com.affluo.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a caller is over its admission budget. RateLimitExceptionHandler maps it to 429 with Retry-After.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+}
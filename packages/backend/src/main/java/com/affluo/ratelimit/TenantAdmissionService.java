@@ -0,0 +1,167 @@
+package com.affluo.ratelimit;
+
+import com.affluo.model.Company;
+import com.affluo.service.UserDirectory;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-company admission control in front of submission ingestion and inventory processing.
+ *
+ * Each company gets a token bucket sized from its Company limits (or the configured defaults)
+ * and a cap on how many of its submissions may sit in the shared processing queue, so one tenant's
+ * burst cannot monopolise request threads, the processing pool or the Mongo connection pool.
+ */
+@Service
+@Slf4j
+public class TenantAdmissionService {
+
+    private final UserDirectory userDirectory;
+    private final MeterRegistry meterRegistry;
+    private final LoadingCache<String, TenantLimits> limits;
+    private final Map<String, LimitedBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> queued = new ConcurrentHashMap<>();
+
+    private final double defaultRate;
+    private final int defaultBurst;
+    private final int defaultMaxQueued;
+    private final long blockedRetryAfterSeconds;
+
+    public TenantAdmissionService(UserDirectory userDirectory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${admission.defaults.submission-rate:50}") double defaultRate,
+                                  @Value("${admission.defaults.submission-burst:500}") int defaultBurst,
+                                  @Value("${admission.defaults.max-queued-submissions:2000}") int defaultMaxQueued,
+                                  @Value("${admission.limits-refresh:1m}") Duration limitsRefresh) {
+        this.userDirectory = userDirectory;
+        this.meterRegistry = meterRegistry;
+        this.defaultRate = defaultRate;
+        this.defaultBurst = defaultBurst;
+        this.defaultMaxQueued = defaultMaxQueued;
+        this.blockedRetryAfterSeconds = Math.max(1, limitsRefresh.toSeconds());
+        this.limits = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(limitsRefresh)
+            .build(this::loadLimits);
+    }
+
+    /**
+     * Admit a request that will create or process the given number of submissions
+     *
+     * @throws RateLimitExceededException when the company is over its rate or has too much queued work
+     */
+    public void admit(String companyId, int submissions) {
+        TenantLimits tenantLimits = limits.get(companyId);
+
+        if (tenantLimits.blocked()) {
+            throttled(companyId, "blocked");
+            // Retry once the limits could have been raised, not after an infinite refill
+            throw new RateLimitExceededException("Submissions are blocked for company " + companyId, blockedRetryAfterSeconds);
+        }
+
+        if (queuedCount(companyId) >= tenantLimits.maxQueued()) {
+            throttled(companyId, "queue");
+            throw new RateLimitExceededException("Too many submissions awaiting processing for company " + companyId, 5);
+        }
+
+        long waitNanos = bucketFor(companyId, tenantLimits).tryAcquire(Math.max(1, submissions));
+        if (waitNanos > 0) {
+            throttled(companyId, "rate");
+            throw new RateLimitExceededException("Submission rate limit exceeded for company " + companyId,
+                TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+
+    /**
+     * Charge the company's bucket for additional submissions of an already admitted request
+     */
+    public void charge(String companyId, int submissions) {
+        TenantLimits tenantLimits = limits.get(companyId);
+        if (!tenantLimits.blocked()) {
+            bucketFor(companyId, tenantLimits).charge(submissions);
+        }
+    }
+
+    /**
+     * Reserve a slot in the company's share of the processing queue
+     *
+     * @return false when the company's queue share is full and the work should be deferred
+     */
+    public boolean tryEnqueue(String companyId) {
+        int max = limits.get(companyId).maxQueued();
+        AtomicInteger counter = queued.computeIfAbsent(companyId, id -> new AtomicInteger());
+        if (counter.incrementAndGet() > max) {
+            counter.decrementAndGet();
+            throttled(companyId, "queue");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Release a slot reserved with tryEnqueue once the work has finished or was not scheduled
+     */
+    public void release(String companyId) {
+        AtomicInteger counter = queued.get(companyId);
+        if (counter != null) {
+            counter.decrementAndGet();
+        }
+    }
+
+    private int queuedCount(String companyId) {
+        AtomicInteger counter = queued.get(companyId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Get the company's bucket, rebuilding it when its configured limits changed
+     */
+    private TokenBucket bucketFor(String companyId, TenantLimits tenantLimits) {
+        return buckets.compute(companyId, (id, existing) ->
+            existing != null && existing.limits().equals(tenantLimits)
+                ? existing
+                : new LimitedBucket(tenantLimits, new TokenBucket(tenantLimits.rate(), tenantLimits.burst()))
+        ).bucket();
+    }
+
+    private TenantLimits loadLimits(String companyId) {
+        Optional<Company> company = userDirectory.findCompany(companyId);
+        return new TenantLimits(
+            company.map(Company::getSubmissionRateLimit).orElse(defaultRate),
+            company.map(Company::getSubmissionBurst).orElse(defaultBurst),
+            company.map(Company::getMaxQueuedSubmissions).orElse(defaultMaxQueued)
+        );
+    }
+
+    private void throttled(String companyId, String reason) {
+        log.debug("Throttled company {} ({})", companyId, reason);
+        meterRegistry.counter("admission.throttled", "company", companyId, "reason", reason).increment();
+    }
+
+    /**
+     * A rate of zero or less blocks the company; a burst below one is raised to one
+     */
+    private record TenantLimits(double rate, int burst, int maxQueued) {
+        TenantLimits {
+            burst = Math.max(1, burst);
+        }
+
+        boolean blocked() {
+            return !(rate > 0);
+        }
+    }
+
+    private record LimitedBucket(TenantLimits limits, TokenBucket bucket) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.affluo.ratelimit;
+
+/**
+ * Thread-safe token bucket that admits a request while at least one token is available
+ * and then charges its full cost, letting the balance go negative.
+ *
+ * Charging after admission means a large batch is never starved by a small capacity; instead it
+ * puts the bucket into debt and later requests wait until the refill has paid it back.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double tokensPerSecond, double capacity) {
+        if (!(tokensPerSecond > 0) || !(capacity >= 1)) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a capacity of at least 1, got "
+                + tokensPerSecond + "/s and " + capacity);
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Try to admit a request costing the given number of tokens
+     *
+     * @return 0 when admitted, otherwise the nanoseconds until a request could be admitted
+     */
+    public synchronized long tryAcquire(double cost) {
+        refill();
+        if (tokens >= 1) {
+            tokens -= cost;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Charge tokens for work that was already admitted, such as later chunks of a stream
+     */
+    public synchronized void charge(double cost) {
+        refill();
+        tokens -= cost;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
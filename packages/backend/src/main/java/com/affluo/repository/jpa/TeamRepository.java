@@ -0,0 +1,19 @@
+package com.affluo.repository.jpa;
+
+import com.affluo.model.Team;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TeamRepository extends JpaRepository<Team, Long> {
+    
+    List<Team> findByCompanyId(String companyId);
+    
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Team> findByCompanyIdAndIsActiveTrue(String companyId);
+}
@@ -1,8 +1,11 @@
 package com.affluo.repository.jpa;
 
 import com.affluo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,8 +21,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     List<User> findByCompanyId(String companyId);
     
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<User> findByCompanyIdAndIsActiveTrue(String companyId);
     
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT u FROM User u WHERE u.companyId = :companyId AND u.role = :role")
     List<User> findByCompanyIdAndRole(@Param("companyId") String companyId, @Param("role") User.UserRole role);
     
@@ -0,0 +1,16 @@
+package com.affluo.repository.mongo;
+
+import com.affluo.model.DeadLetterSubmission;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeadLetterSubmissionRepository extends MongoRepository<DeadLetterSubmission, String> {
+    
+    List<DeadLetterSubmission> findByCompanyIdAndRequeuedAtIsNull(String companyId);
+    
+    Optional<DeadLetterSubmission> findByIdAndCompanyId(String id, String companyId);
+}
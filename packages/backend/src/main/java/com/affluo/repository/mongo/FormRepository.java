@@ -1,5 +1,6 @@
 package com.affluo.repository.mongo;
 
+import com.affluo.dto.FormSummary;
 import com.affluo.model.Form;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -13,6 +14,8 @@ public interface FormRepository extends MongoRepository<Form, String> {
     
     List<Form> findByCompanyId(String companyId);
     
+    List<FormSummary> findSummariesByCompanyId(String companyId);
+    
     List<Form> findByCompanyIdAndStatus(String companyId, String status);
     
     Optional<Form> findByIdAndCompanyId(String id, String companyId);
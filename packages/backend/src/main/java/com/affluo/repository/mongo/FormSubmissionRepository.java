@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FormSubmissionRepository extends MongoRepository<FormSubmission, String> {
+public interface FormSubmissionRepository extends MongoRepository<FormSubmission, String>, FormSubmissionRepositoryCustom {
     
     List<FormSubmission> findByCompanyId(String companyId);
     
@@ -0,0 +1,24 @@
+package com.affluo.repository.mongo;
+
+import com.affluo.dto.FormSubmissionSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface FormSubmissionRepositoryCustom {
+    
+    /**
+     * Page through submission summaries, projecting away the payload fields.
+     * Null filters are ignored.
+     */
+    Page<FormSubmissionSummary> findSummaries(String companyId, String formId, String status, String inventoryStatus,
+                                              LocalDateTime submittedFrom, LocalDateTime submittedTo, Pageable pageable);
+    
+    /**
+     * Get submission summaries for a set of IDs, newest first
+     */
+    List<FormSubmissionSummary> findSummariesByIds(String companyId, Collection<String> ids);
+}
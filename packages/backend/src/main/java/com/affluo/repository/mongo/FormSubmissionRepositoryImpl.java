@@ -0,0 +1,69 @@
+package com.affluo.repository.mongo;
+
+import com.affluo.dto.FormSubmissionSummary;
+import com.affluo.model.FormSubmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FormSubmissionRepositoryImpl implements FormSubmissionRepositoryCustom {
+    
+    private static final String[] SUMMARY_FIELDS = {
+        "formId", "status", "inventoryStatus", "affectsInventory", "submittedBy",
+        "submittedByEmail", "submittedAt", "processedBy", "processedAt"
+    };
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Override
+    public Page<FormSubmissionSummary> findSummaries(String companyId, String formId, String status, String inventoryStatus,
+                                                     LocalDateTime submittedFrom, LocalDateTime submittedTo, Pageable pageable) {
+        Criteria criteria = Criteria.where("companyId").is(companyId);
+        if (formId != null) {
+            criteria.and("formId").is(formId);
+        }
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (inventoryStatus != null) {
+            criteria.and("inventoryStatus").is(inventoryStatus);
+        }
+        if (submittedFrom != null && submittedTo != null) {
+            criteria.and("submittedAt").gte(submittedFrom).lte(submittedTo);
+        } else if (submittedFrom != null) {
+            criteria.and("submittedAt").gte(submittedFrom);
+        } else if (submittedTo != null) {
+            criteria.and("submittedAt").lte(submittedTo);
+        }
+        
+        Query query = Query.query(criteria)
+            .with(pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.DESC, "submittedAt"))
+            .with(pageable);
+        query.fields().include(SUMMARY_FIELDS);
+        
+        String collection = mongoTemplate.getCollectionName(FormSubmission.class);
+        List<FormSubmissionSummary> summaries = mongoTemplate.find(query, FormSubmissionSummary.class, collection);
+        
+        return PageableExecutionUtils.getPage(summaries, pageable,
+            () -> mongoTemplate.count(Query.query(criteria), FormSubmission.class));
+    }
+    
+    @Override
+    public List<FormSubmissionSummary> findSummariesByIds(String companyId, Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("companyId").is(companyId))
+            .with(Sort.by(Sort.Direction.DESC, "submittedAt"));
+        query.fields().include(SUMMARY_FIELDS);
+        
+        return mongoTemplate.find(query, FormSubmissionSummary.class, mongoTemplate.getCollectionName(FormSubmission.class));
+    }
+}
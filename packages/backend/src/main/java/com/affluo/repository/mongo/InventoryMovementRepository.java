@@ -7,12 +7,15 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InventoryMovementRepository extends MongoRepository<InventoryMovement, String> {
     
     List<InventoryMovement> findByCompanyId(String companyId);
     
+    Optional<InventoryMovement> findByIdAndCompanyId(String id, String companyId);
+    
     List<InventoryMovement> findByCompanyIdAndInventoryItemId(String companyId, String inventoryItemId);
     
     List<InventoryMovement> findByCompanyIdAndMovementType(String companyId, String movementType);
@@ -0,0 +1,20 @@
+package com.affluo.repository.mongo;
+
+import com.affluo.model.ListItemRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ListItemRepository extends MongoRepository<ListItemRecord, String> {
+    
+    List<ListItemRecord> findByListIdOrderByIdAsc(String listId);
+    
+    List<ListItemRecord> findByListIdOrderByIdAsc(String listId, Pageable pageable);
+    
+    List<ListItemRecord> findByListIdAndIdGreaterThanOrderByIdAsc(String listId, String afterId, Pageable pageable);
+    
+    long deleteByListId(String listId);
+}
@@ -1,5 +1,6 @@
 package com.affluo.repository.mongo;
 
+import com.affluo.dto.ListSummary;
 import com.affluo.model.List;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -12,6 +13,8 @@ public interface ListRepository extends MongoRepository<List, String> {
     
     List<List> findByCompanyId(String companyId);
     
+    List<ListSummary> findSummariesByCompanyId(String companyId);
+    
     @Query("{'companyId': ?0, 'name': {$regex: ?1, $options: 'i'}}")
     List<List> findByCompanyIdAndNameContainingIgnoreCase(String companyId, String name);
     
@@ -0,0 +1,22 @@
+package com.affluo.security;
+
+import com.affluo.model.User;
+
+import java.util.List;
+
+/**
+ * UserDetails that keeps the loaded account, so login can use it after authentication without a second lookup
+ */
+public class AccountUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final transient User account;
+
+    public AccountUserDetails(User account) {
+        super(account.getUsername(), account.getPassword(), List.of());
+        this.account = account;
+    }
+
+    public User getAccount() {
+        return account;
+    }
+}
@@ -0,0 +1,51 @@
+package com.affluo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-node refresh token store for development and deployments without Redis
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Cache<String, Family> families = Caffeine.newBuilder()
+        .expireAfter(Expiry.<String, Family>writing((familyId, family) ->
+            Duration.between(Instant.now(), family.expiresAt())))
+        .build();
+
+    @Override
+    public void create(String familyId, String username, String tokenHash, Duration ttl) {
+        families.put(familyId, new Family(username, tokenHash, Instant.now().plus(ttl)));
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String presentedHash, String nextHash, Duration ttl) {
+        AtomicReference<Rotation> result = new AtomicReference<>(new Rotation(Outcome.UNKNOWN, null));
+        families.asMap().computeIfPresent(familyId, (id, family) -> {
+            if (!family.tokenHash().equals(presentedHash)) {
+                result.set(new Rotation(Outcome.REUSED, family.username()));
+                return null;
+            }
+            result.set(new Rotation(Outcome.ROTATED, family.username()));
+            return new Family(family.username(), nextHash, Instant.now().plus(ttl));
+        });
+        return result.get();
+    }
+
+    @Override
+    public void revoke(String familyId) {
+        families.invalidate(familyId);
+    }
+
+    private record Family(String username, String tokenHash, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.affluo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-node revocation store for development and deployments without Redis
+ */
+@Component
+@ConditionalOnProperty(name = "auth.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRevokedTokenStore implements RevokedTokenStore {
+
+    private final Cache<String, Instant> revoked = Caffeine.newBuilder()
+        .expireAfter(Expiry.<String, Instant>writing((tokenId, expiresAt) -> Duration.between(Instant.now(), expiresAt)))
+        .build();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        listeners.forEach(listener -> listener.accept(tokenId));
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revoked.getIfPresent(tokenId) != null;
+    }
+
+    @Override
+    public Collection<String> activeRevocations() {
+        return List.copyOf(revoked.asMap().keySet());
+    }
+
+    @Override
+    public void onRevocation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+}
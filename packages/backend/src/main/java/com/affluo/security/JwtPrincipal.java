@@ -0,0 +1,33 @@
+package com.affluo.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal of a request authenticated by a JWT, built from the token's claims alone
+ */
+public record JwtPrincipal(String username,
+                           String tokenId,
+                           String companyId,
+                           String role,
+                           Set<Long> teamIds,
+                           Instant expiresAt) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return role == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public boolean belongsTo(String companyId) {
+        return this.companyId != null && this.companyId.equals(companyId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.affluo.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Refresh token store shared by all nodes. Each family is a Redis hash expiring with the family;
+ * rotation runs as a Lua script so two concurrent refreshes cannot both win.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh.store", havingValue = "redis")
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String KEY_PREFIX = "auth:refresh:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = RedisScript.of("""
+        local current = redis.call('HGET', KEYS[1], 'hash')
+        if not current then return {'UNKNOWN', ''} end
+        local username = redis.call('HGET', KEYS[1], 'username')
+        if current ~= ARGV[1] then
+          redis.call('DEL', KEYS[1])
+          return {'REUSED', username}
+        end
+        redis.call('HSET', KEYS[1], 'hash', ARGV[2])
+        redis.call('PEXPIRE', KEYS[1], ARGV[3])
+        return {'ROTATED', username}
+        """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRefreshTokenStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void create(String familyId, String username, String tokenHash, Duration ttl) {
+        String key = KEY_PREFIX + familyId;
+        redisTemplate.opsForHash().putAll(key, Map.of("username", username, "hash", tokenHash));
+        redisTemplate.expire(key, ttl);
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String presentedHash, String nextHash, Duration ttl) {
+        List<?> result = redisTemplate.execute(ROTATE, List.of(KEY_PREFIX + familyId),
+            presentedHash, nextHash, String.valueOf(ttl.toMillis()));
+        if (result == null || result.size() < 2) {
+            return new Rotation(Outcome.UNKNOWN, null);
+        }
+        return new Rotation(Outcome.valueOf(result.get(0).toString()), result.get(1).toString());
+    }
+
+    @Override
+    public void revoke(String familyId) {
+        redisTemplate.delete(KEY_PREFIX + familyId);
+    }
+}
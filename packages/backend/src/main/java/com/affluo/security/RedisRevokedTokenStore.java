@@ -0,0 +1,73 @@
+package com.affluo.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Revocation store shared by all nodes. Each revoked jti is a key expiring with its token, indexed in a
+ * sorted set by expiry for snapshot reads; new revocations are announced on a pub/sub channel.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.revocation.store", havingValue = "redis")
+public class RedisRevokedTokenStore implements RevokedTokenStore {
+
+    private static final String KEY_PREFIX = "auth:revoked:";
+    private static final String INDEX_KEY = "auth:revoked-index";
+    private static final ChannelTopic CHANNEL = new ChannelTopic("auth:revocations");
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisRevokedTokenStore(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) return;
+
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", ttl);
+        redisTemplate.opsForZSet().add(INDEX_KEY, tokenId, expiresAt.toEpochMilli());
+        redisTemplate.convertAndSend(CHANNEL.getTopic(), tokenId);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+    }
+
+    @Override
+    public Collection<String> activeRevocations() {
+        redisTemplate.opsForZSet().removeRangeByScore(INDEX_KEY, Double.NEGATIVE_INFINITY, Instant.now().toEpochMilli());
+        Set<String> tokenIds = redisTemplate.opsForZSet().range(INDEX_KEY, 0, -1);
+        return tokenIds != null ? tokenIds : Set.of();
+    }
+
+    @Override
+    public void onRevocation(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        listenerContainer.destroy();
+    }
+}
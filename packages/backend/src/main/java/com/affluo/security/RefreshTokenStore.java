@@ -0,0 +1,30 @@
+package com.affluo.security;
+
+import java.time.Duration;
+
+/**
+ * Server-side state of refresh token families.
+ *
+ * A family starts at login and holds the hash of the one refresh token currently valid for it.
+ * Presenting any other token of the family means an old token was replayed, and the family is revoked.
+ */
+public interface RefreshTokenStore {
+
+    void create(String familyId, String username, String tokenHash, Duration ttl);
+
+    /**
+     * Atomically replace the family's current token hash if it matches the presented one
+     */
+    Rotation rotate(String familyId, String presentedHash, String nextHash, Duration ttl);
+
+    void revoke(String familyId);
+
+    enum Outcome {
+        ROTATED, // the presented token was current and has been replaced
+        REUSED,  // the presented token was already rotated; the family has been revoked
+        UNKNOWN  // no such family, e.g. expired or logged out
+    }
+
+    record Rotation(Outcome outcome, String username) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.affluo.security;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Authoritative denylist of revoked access tokens, keyed by jti. Entries only need to live until
+ * the token itself expires.
+ */
+public interface RevokedTokenStore {
+
+    void revoke(String tokenId, Instant expiresAt);
+
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Get the IDs of revoked tokens that have not expired yet
+     */
+    Collection<String> activeRevocations();
+
+    /**
+     * Register a callback for revocations made on any node
+     */
+    void onRevocation(Consumer<String> listener);
+}
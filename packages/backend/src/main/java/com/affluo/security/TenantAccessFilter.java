@@ -0,0 +1,44 @@
+package com.affluo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rejects requests to /api/companies/{companyId}/** whose token was issued for another company.
+ *
+ * The check compares the path variable with the companyId claim of the JwtPrincipal, so tenant isolation
+ * costs no database access. Tokens without a companyId claim are rejected on company paths.
+ * Not a bean on purpose: it must only run inside the security filter chain, after JwtAuthenticationFilter.
+ */
+public class TenantAccessFilter extends OncePerRequestFilter {
+
+    private static final Pattern COMPANY_PATH = Pattern.compile("^/api/companies/([^/]+)(/.*)?$");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        
+        Matcher matcher = COMPANY_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        
+        if (matcher.matches() && authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            String companyId = UriUtils.decode(matcher.group(1), StandardCharsets.UTF_8);
+            if (!principal.belongsTo(companyId)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
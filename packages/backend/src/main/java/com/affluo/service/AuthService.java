@@ -1,47 +1,122 @@
 package com.affluo.service;
 
+import com.affluo.dto.DirectoryUser;
 import com.affluo.dto.LoginRequest;
 import com.affluo.dto.LoginResponse;
 import com.affluo.model.Company;
 import com.affluo.model.User;
-import com.affluo.repository.jpa.CompanyRepository;
-import com.affluo.repository.jpa.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.affluo.ratelimit.LoginThrottle;
+import com.affluo.ratelimit.RateLimitExceededException;
+import com.affluo.security.AccountUserDetails;
+import com.affluo.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 public class AuthService implements UserDetailsService {
 
-    private final UserRepository userRepository;
-    private final CompanyRepository companyRepository;
+    private final UserDirectory userDirectory;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
     private final AuthenticationManager authenticationManager;
-    private final PasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+    private final Executor loginExecutor;
+    private final Timer loginQueueTimer;
+
+    public AuthService(UserDirectory userDirectory,
+                       JwtService jwtService,
+                       RefreshTokenService refreshTokenService,
+                       TokenRevocationService tokenRevocationService,
+                       AuthenticationManager authenticationManager,
+                       LoginThrottle loginThrottle,
+                       @Qualifier("loginExecutor") Executor loginExecutor,
+                       MeterRegistry meterRegistry) {
+        this.userDirectory = userDirectory;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authenticationManager = authenticationManager;
+        this.loginThrottle = loginThrottle;
+        this.loginExecutor = loginExecutor;
+        this.loginQueueTimer = Timer.builder("auth.login.queue")
+            .description("Time logins wait for a login executor thread")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Throttle the attempt, then run the login on the bounded login executor
+     *
+     * @throws RateLimitExceededException when the username or client IP is over its attempt budget
+     * @throws RejectedExecutionException when the login queue is full
+     */
+    public CompletableFuture<LoginResponse> loginAsync(LoginRequest request, String clientIp) {
+        loginThrottle.admit(request.getUsername(), clientIp);
+
+        long enqueuedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            loginQueueTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            return login(request);
+        }, loginExecutor);
+    }
 
     public LoginResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        User user = userRepository.findByUsername(request.getUsername())
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        // The account loaded for the password check is reused instead of being looked up again
+        User user = ((AccountUserDetails) authentication.getPrincipal()).getAccount();
 
-        Company company = companyRepository.findByCompanyId(user.getCompanyId())
-            .orElseThrow(() -> new RuntimeException("Company not found"));
+        DirectoryUser account = DirectoryUser.from(user);
+        String token = jwtService.generateToken(account);
+        String refreshToken = refreshTokenService.issue(user.getUsername());
+
+        return new LoginResponse(token, refreshToken, toUserDto(account));
+    }
 
-        UserDetails userDetails = loadUserByUsername(request.getUsername());
-        String token = jwtService.generateToken(userDetails);
+    /**
+     * Exchange a refresh token for a new access token and a rotated refresh token, without a password check.
+     * Claims are rebuilt from the current account, so role and team changes apply from here on.
+     *
+     * @throws BadCredentialsException when the refresh token is invalid, reused or its user no longer exists
+     */
+    public LoginResponse refresh(String refreshToken) {
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate(refreshToken);
 
-        LoginResponse.UserDto userDto = new LoginResponse.UserDto(
+        DirectoryUser user = userDirectory.findUserByUsername(rotated.username()).orElse(null);
+        if (user == null) {
+            refreshTokenService.revoke(rotated.refreshToken());
+            throw new BadCredentialsException("User not found");
+        }
+
+        // Clients replace their stored user with this one, so it reflects the current account
+        return new LoginResponse(jwtService.generateToken(user), rotated.refreshToken(), toUserDto(user));
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private LoginResponse.UserDto toUserDto(DirectoryUser user) {
+        Company company = userDirectory.findCompany(user.getCompanyId())
+            .orElseThrow(() -> new RuntimeException("Company not found"));
+
+        return new LoginResponse.UserDto(
             user.getId(),
             user.getUsername(),
             user.getEmail(),
@@ -51,19 +126,21 @@ public class AuthService implements UserDetailsService {
             user.getCompanyId(),
             company.getName()
         );
+    }
 
-        return new LoginResponse(token, null, userDto);
+    /**
+     * Revoke an access token for the rest of its lifetime
+     */
+    public void revokeAccessToken(JwtPrincipal principal) {
+        tokenRevocationService.revoke(principal.tokenId(), principal.expiresAt());
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // Straight from the database: password hashes are never cached
+        User user = userDirectory.findAccount(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return org.springframework.security.core.userdetails.User.builder()
-            .username(user.getUsername())
-            .password(user.getPassword())
-            .authorities(new ArrayList<>())
-            .build();
+        return new AccountUserDetails(user);
     }
 }
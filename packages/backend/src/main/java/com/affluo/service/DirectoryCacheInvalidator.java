@@ -0,0 +1,55 @@
+package com.affluo.service;
+
+import com.affluo.model.Company;
+import com.affluo.model.Team;
+import com.affluo.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener evicting UserDirectory entries of written users, companies and teams.
+ * Eviction waits for the commit, so readers after it load the committed row. A reader that loaded the
+ * pre-commit row just before the eviction is kept out of Redis by the tombstone the eviction leaves,
+ * and the local tier drops its copy once that load finishes.
+ */
+@Component
+public class DirectoryCacheInvalidator {
+
+    private final ObjectProvider<UserDirectory> userDirectory;
+
+    public DirectoryCacheInvalidator(ObjectProvider<UserDirectory> userDirectory) {
+        this.userDirectory = userDirectory;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityChanged(Object entity) {
+        Runnable eviction;
+        if (entity instanceof User user) {
+            eviction = () -> userDirectory.getObject().evictUser(user.getUsername());
+        } else if (entity instanceof Company company) {
+            eviction = () -> userDirectory.getObject().evictCompany(company.getCompanyId());
+        } else if (entity instanceof Team team) {
+            eviction = () -> userDirectory.getObject().evictTeam(team.getId());
+        } else {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
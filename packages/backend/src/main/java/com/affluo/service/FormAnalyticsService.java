@@ -0,0 +1,451 @@
+package com.affluo.service;
+
+import com.affluo.model.Form;
+import com.affluo.model.FormAnalytics;
+import com.affluo.model.FormAnalyticsClaim;
+import com.affluo.model.FormSubmission;
+import com.affluo.repository.mongo.FormRepository;
+import com.affluo.util.MongoKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains per-form analytics documents: option counts for choice fields, min/max/sum/count
+ * for number fields and a daily submission histogram.
+ *
+ * New submissions are folded in with a single $inc/$min/$max upsert per ingested chunk, so reading
+ * analytics costs one document fetch instead of a scan over all submissions.
+ *
+ * Each analytics document carries a generation that every rebuild bumps, and recording applies its
+ * update only if the document is still at the generation it read. While a rebuild runs it marks the
+ * document with rebuildingSince; recording then claims submissions for the current generation in
+ * form_analytics_claims and only counts the ones it won, as it does for submissions created around the
+ * last rebuild. Together this lets a rebuild run while ingestion continues without counting any
+ * submission twice, and outside rebuilds recording is a single upsert.
+ */
+@Service
+@Slf4j
+public class FormAnalyticsService {
+
+    private final MongoTemplate mongoTemplate;
+    private final FormRepository formRepository;
+    private final ExecutorService backfillExecutor;
+    private final Duration rebuildGrace;
+    private final Duration rebuildTimeout;
+
+    private static final int MAX_RECORD_ATTEMPTS = 3;
+
+    public FormAnalyticsService(MongoTemplate mongoTemplate,
+                                FormRepository formRepository,
+                                @Value("${forms.analytics.backfill-parallelism:4}") int backfillParallelism,
+                                @Value("${forms.analytics.rebuild-grace:10m}") Duration rebuildGrace,
+                                @Value("${forms.analytics.rebuild-timeout:1h}") Duration rebuildTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.formRepository = formRepository;
+        this.rebuildGrace = rebuildGrace;
+        this.rebuildTimeout = rebuildTimeout;
+        this.backfillExecutor = Executors.newFixedThreadPool(backfillParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "analytics-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the analytics for a form with decoded field and option keys
+     */
+    public Optional<FormAnalytics> getFormAnalytics(String companyId, String formId) {
+        log.info("Fetching analytics for form {} in company: {}", formId, companyId);
+        Query query = Query.query(Criteria.where("_id").is(formId).and("companyId").is(companyId));
+        return Optional.ofNullable(mongoTemplate.findOne(query, FormAnalytics.class)).map(this::decode);
+    }
+
+    /**
+     * Fold newly persisted submissions into the form's aggregates.
+     * Failures are logged rather than thrown, a backfill repairs any drift.
+     */
+    public void recordSubmissions(Form form, Collection<FormSubmission> submissions) {
+        List<FormSubmission> counted = submissions.stream()
+            .filter(submission -> !"DRAFT".equals(submission.getStatus()))
+            .toList();
+        if (counted.isEmpty()) return;
+
+        try {
+            for (int attempt = 1; attempt <= MAX_RECORD_ATTEMPTS; attempt++) {
+                RebuildState state = rebuildState(form.getId());
+                long generation = state.generation();
+
+                // Only submissions a rebuild may also count need a claim
+                List<FormSubmission> contested = counted.stream().filter(state::contested).toList();
+                Accumulator accumulator = new Accumulator(form);
+                counted.stream().filter(submission -> !state.contested(submission)).forEach(accumulator::add);
+                claim(form.getId(), contested, generation).forEach(accumulator::add);
+                if (accumulator.total == 0) return;
+
+                try {
+                    mongoTemplate.upsert(Query.query(Criteria.where("_id").is(form.getId()).and("generation")
+                            .in(generation == 0 ? new Object[]{0L, null} : new Object[]{generation})),
+                        accumulator.toUpdate(), FormAnalytics.class);
+                    return;
+                } catch (DuplicateKeyException e) {
+                    // A rebuild replaced the document meanwhile: claim again for its generation
+                    log.debug("Analytics for form {} rebuilt during recording, retrying", form.getId());
+                }
+            }
+            log.warn("Gave up recording analytics for form {} after concurrent rebuilds", form.getId());
+        } catch (DataAccessException e) {
+            log.warn("Failed to update analytics for form {}: {}", form.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the aggregates of every form in a company from form_submissions, several forms in parallel
+     *
+     * @throws IllegalStateException when a rebuild of the company's analytics is still running
+     */
+    public CompletableFuture<Void> backfillCompany(String companyId) {
+        Query running = Query.query(Criteria.where("companyId").is(companyId)
+            .and("rebuildingSince").gt(LocalDateTime.now().minus(rebuildTimeout)));
+        if (mongoTemplate.exists(running, FormAnalytics.class)) {
+            throw new IllegalStateException("An analytics rebuild is already running for this company");
+        }
+
+        List<Form> forms = formRepository.findByCompanyId(companyId);
+        log.info("Backfilling analytics for {} forms in company: {}", forms.size(), companyId);
+
+        CompletableFuture<?>[] tasks = forms.stream()
+            .map(form -> CompletableFuture.runAsync(() -> backfillForm(form), backfillExecutor))
+            .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(tasks)
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    log.error("Analytics backfill failed for company {}: {}", companyId, error.getMessage());
+                } else {
+                    log.info("Analytics backfill completed for company: {}", companyId);
+                }
+            });
+    }
+
+    /**
+     * Rebuild one form's aggregates by streaming its submissions through a cursor into the next generation.
+     *
+     * The rebuild first marks the document with rebuildingSince, which also keeps a second rebuild of the
+     * form out. Submissions created within the grace period of the rebuild start may also be recorded
+     * live, so they are only counted if the rebuild wins their claim. Once the rebuilt document has
+     * replaced the old one, the same window is replayed through recordSubmissions to pick up submissions
+     * the cursor did not see; claims stop anything from being counted twice.
+     */
+    private void backfillForm(Form form) {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime windowStart = started.minus(rebuildGrace);
+        if (!markRebuilding(form, started)) {
+            log.warn("Analytics for form {} are already being rebuilt, skipping", form.getId());
+            return;
+        }
+
+        boolean replaced = false;
+        try {
+            long previous = rebuildState(form.getId()).generation();
+            long generation = previous + 1;
+
+            Accumulator accumulator = new Accumulator(form);
+            List<FormSubmission> recent = new ArrayList<>();
+
+            Query query = Query.query(Criteria.where("formId").is(form.getId()).and("status").ne("DRAFT"));
+            query.fields().include("data", "submittedAt", "status", "createdAt");
+
+            try (CloseableIterator<FormSubmission> submissions = mongoTemplate.stream(query, FormSubmission.class)) {
+                submissions.forEachRemaining(submission -> {
+                    if (submission.getCreatedAt() == null || submission.getCreatedAt().isBefore(windowStart)) {
+                        accumulator.add(submission);
+                    } else {
+                        recent.add(submission);
+                    }
+                });
+            }
+            claim(form.getId(), recent, generation).forEach(accumulator::add);
+
+            FormAnalytics analytics = accumulator.toDocument();
+            analytics.setRebuiltAt(started);
+            analytics.setRebuildingSince(started);
+            analytics.setGeneration(generation);
+
+            // Replace only while this rebuild still holds the marker on the generation it read
+            Query current = Query.query(Criteria.where("_id").is(form.getId())
+                .and("rebuildingSince").is(started)
+                .and("generation").in(previous == 0 ? new Object[]{0L, null} : new Object[]{previous}));
+            if (mongoTemplate.findAndReplace(current, analytics) == null) {
+                log.warn("Analytics for form {} changed generation during the rebuild, discarding it", form.getId());
+                return;
+            }
+            replaced = true;
+
+            Query window = Query.query(Criteria.where("formId").is(form.getId())
+                .and("status").ne("DRAFT")
+                .and("createdAt").gte(windowStart));
+            window.fields().include("data", "submittedAt", "status", "createdAt");
+            recordSubmissions(form, mongoTemplate.find(window, FormSubmission.class));
+
+            log.info("Rebuilt analytics for form {} into generation {} from {} submissions",
+                form.getId(), generation, accumulator.total);
+        } finally {
+            Update done = new Update().unset("rebuildingSince");
+            if (replaced) {
+                // Submissions created up to here may have been replayed, so they still need claims
+                done.set("rebuildCompletedAt", LocalDateTime.now());
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(form.getId()).and("rebuildingSince").is(started)),
+                done, FormAnalytics.class);
+        }
+    }
+
+    /**
+     * Set rebuildingSince unless another rebuild holds it, creating the document if the form has none
+     */
+    private boolean markRebuilding(Form form, LocalDateTime started) {
+        Query free = Query.query(Criteria.where("_id").is(form.getId()).orOperator(
+            Criteria.where("rebuildingSince").is(null),
+            Criteria.where("rebuildingSince").lt(started.minus(rebuildTimeout))));
+        try {
+            mongoTemplate.upsert(free, new Update()
+                .set("rebuildingSince", started)
+                .setOnInsert("companyId", form.getCompanyId()), FormAnalytics.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private RebuildState rebuildState(String formId) {
+        Query query = Query.query(Criteria.where("_id").is(formId));
+        query.fields().include("generation", "rebuildingSince", "rebuiltAt", "rebuildCompletedAt");
+        FormAnalytics analytics = mongoTemplate.findOne(query, FormAnalytics.class);
+        if (analytics == null) return new RebuildState(0, false, null, null);
+
+        LocalDateTime rebuildingSince = analytics.getRebuildingSince();
+        boolean rebuilding = rebuildingSince != null && rebuildingSince.isAfter(LocalDateTime.now().minus(rebuildTimeout));
+        boolean rebuilt = analytics.getRebuiltAt() != null && analytics.getRebuildCompletedAt() != null;
+        // The grace period also covers clock skew between the nodes stamping createdAt
+        return new RebuildState(analytics.getGeneration() == null ? 0 : analytics.getGeneration(), rebuilding,
+            rebuilt ? analytics.getRebuiltAt().minus(rebuildGrace) : null,
+            rebuilt ? analytics.getRebuildCompletedAt().plus(rebuildGrace) : null);
+    }
+
+    /**
+     * Generation and rebuild window of an analytics document
+     */
+    private record RebuildState(long generation, boolean rebuilding,
+                                LocalDateTime contestedFrom, LocalDateTime contestedUntil) {
+
+        /**
+         * Whether a rebuild may count this submission too: any submission while one runs, otherwise those
+         * created within the last rebuild's replayed window
+         */
+        boolean contested(FormSubmission submission) {
+            if (rebuilding) return true;
+            if (contestedFrom == null) return false;
+            LocalDateTime createdAt = submission.getCreatedAt();
+            return createdAt == null || (!createdAt.isBefore(contestedFrom) && !createdAt.isAfter(contestedUntil));
+        }
+    }
+
+    /**
+     * Claim submissions for an analytics generation
+     *
+     * @return the submissions this call won; the rest are already counted in that generation or a later one
+     */
+    private List<FormSubmission> claim(String formId, List<FormSubmission> submissions, long generation) {
+        if (submissions.isEmpty()) return List.of();
+
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FormAnalyticsClaim.class);
+        for (FormSubmission submission : submissions) {
+            // An existing claim at this generation or later makes the upsert collide on _id and lose
+            bulk.upsert(Query.query(Criteria.where("_id").is(submission.getId()).and("generation").lt(generation)),
+                new Update()
+                    .set("formId", formId)
+                    .set("generation", generation)
+                    .set("token", token)
+                    .set("claimedAt", now));
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            log.debug("{} of {} submissions of form {} already claimed for generation {}",
+                e.getErrors().size(), submissions.size(), formId, generation);
+        }
+
+        Query won = Query.query(Criteria.where("_id").in(submissions.stream().map(FormSubmission::getId).toList())
+            .and("token").is(token));
+        won.fields().include("_id");
+        Set<String> wonIds = mongoTemplate.find(won, FormAnalyticsClaim.class).stream()
+            .map(FormAnalyticsClaim::getId)
+            .collect(Collectors.toSet());
+        return submissions.stream().filter(submission -> wonIds.contains(submission.getId())).toList();
+    }
+
+    private FormAnalytics decode(FormAnalytics stored) {
+        Map<String, Map<String, Long>> optionCounts = new HashMap<>();
+        if (stored.getOptionCounts() != null) {
+            stored.getOptionCounts().forEach((field, counts) -> {
+                Map<String, Long> decoded = new HashMap<>();
+                counts.forEach((option, count) -> decoded.put(MongoKeys.decode(option), count));
+                optionCounts.put(MongoKeys.decode(field), decoded);
+            });
+        }
+
+        Map<String, FormAnalytics.NumericStats> numericStats = new HashMap<>();
+        if (stored.getNumericStats() != null) {
+            stored.getNumericStats().forEach((field, stats) -> numericStats.put(MongoKeys.decode(field), stats));
+        }
+
+        stored.setOptionCounts(optionCounts);
+        stored.setNumericStats(numericStats);
+        return stored;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdown();
+    }
+
+    /**
+     * In-memory aggregate over a set of submissions of one form
+     */
+    private static final class Accumulator {
+
+        private final Form form;
+        private final List<Form.FormField> choiceFields = new ArrayList<>();
+        private final List<Form.FormField> numberFields = new ArrayList<>();
+        private final Map<String, Map<String, Long>> optionCounts = new HashMap<>();
+        private final Map<String, FormAnalytics.NumericStats> numericStats = new HashMap<>();
+        private final Map<String, Long> dailyCounts = new HashMap<>();
+        private long total;
+
+        Accumulator(Form form) {
+            this.form = form;
+            if (form.getFields() == null) return;
+
+            for (Form.FormField field : form.getFields()) {
+                if (field.getId() == null || field.getType() == null) continue;
+                switch (field.getType()) {
+                    case "select", "radio", "checkbox" -> choiceFields.add(field);
+                    case "number" -> numberFields.add(field);
+                    default -> {
+                        // Free-form answers are not aggregated
+                    }
+                }
+            }
+        }
+
+        void add(FormSubmission submission) {
+            total++;
+            if (submission.getSubmittedAt() != null) {
+                dailyCounts.merge(submission.getSubmittedAt().toLocalDate().toString(), 1L, Long::sum);
+            }
+
+            Map<String, Object> data = submission.getData();
+            if (data == null) return;
+
+            for (Form.FormField field : choiceFields) {
+                Object value = data.get(field.getId());
+                if (value instanceof Collection<?> values) {
+                    values.forEach(element -> countOption(field.getId(), element));
+                } else {
+                    countOption(field.getId(), value);
+                }
+            }
+
+            for (Form.FormField field : numberFields) {
+                Double number = toDouble(data.get(field.getId()));
+                if (number == null) continue;
+                numericStats.merge(field.getId(), new FormAnalytics.NumericStats(1L, number, number, number),
+                    (current, next) -> new FormAnalytics.NumericStats(
+                        current.getCount() + 1,
+                        current.getSum() + number,
+                        Math.min(current.getMin(), number),
+                        Math.max(current.getMax(), number)));
+            }
+        }
+
+        private void countOption(String fieldId, Object value) {
+            if (value == null) return;
+            optionCounts.computeIfAbsent(fieldId, id -> new HashMap<>())
+                .merge(value.toString(), 1L, Long::sum);
+        }
+
+        Update toUpdate() {
+            Update update = new Update()
+                .setOnInsert("companyId", form.getCompanyId())
+                .inc("totalSubmissions", total)
+                .set("updatedAt", LocalDateTime.now());
+
+            optionCounts.forEach((field, counts) -> counts.forEach((option, count) ->
+                update.inc("optionCounts." + MongoKeys.encode(field) + "." + MongoKeys.encode(option), count)));
+
+            numericStats.forEach((field, stats) -> {
+                String path = "numericStats." + MongoKeys.encode(field);
+                update.inc(path + ".count", stats.getCount())
+                    .inc(path + ".sum", stats.getSum())
+                    .min(path + ".min", stats.getMin())
+                    .max(path + ".max", stats.getMax());
+            });
+
+            dailyCounts.forEach((day, count) -> update.inc("dailyCounts." + day, count));
+            return update;
+        }
+
+        FormAnalytics toDocument() {
+            Map<String, Map<String, Long>> encodedOptions = new HashMap<>();
+            optionCounts.forEach((field, counts) -> {
+                Map<String, Long> encoded = new HashMap<>();
+                counts.forEach((option, count) -> encoded.put(MongoKeys.encode(option), count));
+                encodedOptions.put(MongoKeys.encode(field), encoded);
+            });
+
+            Map<String, FormAnalytics.NumericStats> encodedStats = new HashMap<>();
+            numericStats.forEach((field, stats) -> encodedStats.put(MongoKeys.encode(field), stats));
+
+            return new FormAnalytics(form.getId(), form.getCompanyId(), total, encodedOptions, encodedStats,
+                new HashMap<>(dailyCounts), LocalDateTime.now(), null, null, null, null);
+        }
+
+        private static Double toDouble(Object value) {
+            if (value == null) return null;
+            if (value instanceof Number number) return number.doubleValue();
+            try {
+                return Double.parseDouble(value.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
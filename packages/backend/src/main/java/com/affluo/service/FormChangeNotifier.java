@@ -0,0 +1,39 @@
+package com.affluo.service;
+
+import com.affluo.event.FormChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Pushes form changes to STOMP subscribers of /topic/companies/{companyId}/forms/{formId},
+ * so open clients can refetch a form when it or one of its lists changed
+ */
+@Component
+@Slf4j
+public class FormChangeNotifier {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${forms.change-notifications.enabled:true}")
+    private boolean enabled;
+
+    public FormChangeNotifier(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @EventListener
+    public void onFormChanged(FormChangedEvent event) {
+        if (!enabled) return;
+        try {
+            messagingTemplate.convertAndSend("/topic/companies/" + event.companyId() + "/forms/" + event.formId(),
+                Map.of("type", "FORM_CHANGED", "formId", event.formId()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to notify subscribers of form {}: {}", event.formId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.affluo.service;
+
+import com.affluo.event.FormChangedEvent;
+import com.affluo.event.ListChangedEvent;
+import com.affluo.model.Form;
+import com.affluo.model.ListFormDependency;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the list_form_dependencies reverse index from list ID to the forms using it as a data source.
+ *
+ * FormService keeps the index current on form writes. When a list changes, a FormChangedEvent is published
+ * for each dependent form only, so render and validator caches of unrelated forms stay warm.
+ */
+@Service
+@Slf4j
+public class FormDependencyIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FormDependencyIndex(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Get the IDs of the lists a form reads options from
+     */
+    public static Set<String> listIds(Form form) {
+        if (form == null || form.getFields() == null) return Set.of();
+        return form.getFields().stream()
+            .map(Form.FormField::getDataSource)
+            .filter(source -> source != null && "list".equals(source.getType()) && source.getListId() != null)
+            .map(Form.DataSource::getListId)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Get the IDs of the forms that read options from a list
+     */
+    public Set<String> getDependentForms(String listId) {
+        ListFormDependency dependency = mongoTemplate.findById(listId, ListFormDependency.class);
+        return dependency == null || dependency.getFormIds() == null ? Set.of() : dependency.getFormIds();
+    }
+
+    /**
+     * Record the lists of a saved form, dropping lists it no longer uses
+     */
+    public void formSaved(String companyId, String formId, Set<String> previousListIds, Set<String> listIds) {
+        Set<String> dropped = new HashSet<>(previousListIds);
+        dropped.removeAll(listIds);
+        if (listIds.isEmpty() && dropped.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ListFormDependency.class);
+        listIds.forEach(listId -> bulk.upsert(Query.query(Criteria.where("_id").is(listId)),
+            new Update().setOnInsert("companyId", companyId).addToSet("formIds", formId)));
+        dropped.forEach(listId -> bulk.updateOne(Query.query(Criteria.where("_id").is(listId)),
+            new Update().pull("formIds", formId)));
+        bulk.execute();
+    }
+
+    public void formDeleted(String formId, Set<String> listIds) {
+        if (listIds.isEmpty()) return;
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(listIds)),
+            new Update().pull("formIds", formId), ListFormDependency.class);
+    }
+
+    /**
+     * Rebuild the index from the data sources of all stored forms
+     */
+    public void rebuild() {
+        Query query = Query.query(Criteria.where("fields.dataSource.type").is("list"));
+        query.fields().include("companyId", "fields.dataSource");
+
+        int forms = 0;
+        try (CloseableIterator<Form> cursor = mongoTemplate.stream(query, Form.class)) {
+            while (cursor.hasNext()) {
+                Form form = cursor.next();
+                formSaved(form.getCompanyId(), form.getId(), Set.of(), listIds(form));
+                forms++;
+            }
+        }
+        log.info("Rebuilt list dependencies of {} forms", forms);
+    }
+
+    @EventListener
+    public void onListChanged(ListChangedEvent event) {
+        Set<String> formIds = getDependentForms(event.listId());
+        log.debug("List {} changed, invalidating {} dependent forms", event.listId(), formIds.size());
+        formIds.forEach(formId -> eventPublisher.publishEvent(new FormChangedEvent(event.companyId(), formId)));
+    }
+}
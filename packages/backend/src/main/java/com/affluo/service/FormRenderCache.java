@@ -0,0 +1,158 @@
+package com.affluo.service;
+
+import com.affluo.event.FormChangedEvent;
+import com.affluo.model.Form;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps fully resolved forms as pre-serialized JSON (and optionally gzip) bytes for the render endpoint.
+ *
+ * The ETag is derived from the form's updatedAt and the updatedAt of every list it reads options from.
+ * Entries are dropped when a FormChangedEvent names the form, which FormDependencyIndex also publishes
+ * for forms whose lists changed, so a matching If-None-Match can be answered from memory without Mongo or Jackson.
+ *
+ * List versions are read before the options are resolved, so content is never older than its ETag, and a
+ * rendering is only cached if no invalidation of its form arrived while it was being built.
+ * FormChangedEvent is a local application event: other nodes keep serving their copy until it expires
+ * after forms.render.cache-ttl, which bounds how long they can answer 304 for an outdated rendering.
+ */
+@Component
+@Slf4j
+public class FormRenderCache {
+
+    private final FormService formService;
+    private final ListOptionsResolver listOptionsResolver;
+    private final ObjectMapper objectMapper;
+    private final Cache<RenderKey, RenderedForm> rendered;
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final Cache<RenderKey, Long> lastInvalidation;
+
+    @Value("${forms.render.gzip:true}")
+    private boolean gzipEnabled;
+
+    @Value("${forms.render.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    public FormRenderCache(FormService formService,
+                           ListOptionsResolver listOptionsResolver,
+                           ObjectMapper objectMapper,
+                           @Value("${forms.render.cache-max-bytes:67108864}") long maximumBytes,
+                           @Value("${forms.render.cache-ttl:10m}") Duration ttl) {
+        this.formService = formService;
+        this.listOptionsResolver = listOptionsResolver;
+        this.objectMapper = objectMapper;
+        this.rendered = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .<RenderKey, RenderedForm>weigher((key, form) -> form.weight())
+            .expireAfterWrite(ttl)
+            .build();
+        // Only renderings in flight when an invalidation arrives consult it, so it need not outlive the TTL
+        this.lastInvalidation = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * Get the ETag of the cached rendering, if the form is currently cached
+     */
+    public Optional<String> getCachedEtag(String companyId, String formId) {
+        return Optional.ofNullable(rendered.getIfPresent(new RenderKey(companyId, formId))).map(RenderedForm::etag);
+    }
+
+    /**
+     * Get the rendered form, resolving and serializing it on a cache miss
+     */
+    public Optional<RenderedForm> getRenderedForm(String companyId, String formId) {
+        RenderKey key = new RenderKey(companyId, formId);
+        RenderedForm cached = rendered.getIfPresent(key);
+        if (cached != null) return Optional.of(cached);
+
+        long seen = invalidationSequence.get();
+        Optional<Form> form = formService.getFormForRendering(companyId, formId);
+        if (form.isEmpty()) return Optional.empty();
+
+        Set<String> listIds = FormDependencyIndex.listIds(form.get());
+        Map<String, LocalDateTime> listVersions = listOptionsResolver.getListVersions(companyId, listIds);
+        formService.resolveDataSources(form.get());
+        RenderedForm fresh = render(form.get(), listIds, listVersions);
+
+        // Skip caching when the form was invalidated after this rendering started
+        rendered.asMap().compute(key, (k, existing) -> {
+            Long invalidated = lastInvalidation.getIfPresent(k);
+            return invalidated != null && invalidated > seen ? existing : fresh;
+        });
+        return Optional.of(fresh);
+    }
+
+    @EventListener
+    public void onFormChanged(FormChangedEvent event) {
+        RenderKey key = new RenderKey(event.companyId(), event.formId());
+        lastInvalidation.put(key, invalidationSequence.incrementAndGet());
+        rendered.invalidate(key);
+    }
+
+    private RenderedForm render(Form form, Set<String> listIds, Map<String, LocalDateTime> listVersions) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(form);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize form " + form.getId(), e);
+        }
+
+        byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+        String etag = etag(form, listVersions);
+        log.debug("Rendered form {} ({} bytes, gzip {})", form.getId(), json.length, gzip != null ? gzip.length : "-");
+
+        return new RenderedForm(etag, json, gzip, listIds);
+    }
+
+    private static String etag(Form form, Map<String, LocalDateTime> listVersions) {
+        StringBuilder version = new StringBuilder(form.getId()).append('@').append(form.getUpdatedAt());
+        new TreeMap<>(listVersions).forEach((listId, updatedAt) -> version.append('|').append(listId).append('@').append(updatedAt));
+        return "\"" + DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private record RenderKey(String companyId, String formId) {
+    }
+
+    /**
+     * A serialized form ready to be written to the response
+     */
+    public record RenderedForm(String etag, byte[] json, byte[] gzip, Set<String> listIds) {
+
+        int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.affluo.service;
 
+import com.affluo.dto.FormSummary;
+import com.affluo.event.FormChangedEvent;
 import com.affluo.model.Form;
 import com.affluo.repository.mongo.FormRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -18,13 +23,24 @@ import java.util.UUID;
 public class FormService {
     
     private final FormRepository formRepository;
-    private final ListService listService;
+    private final ListOptionsResolver listOptionsResolver;
+    private final SubmissionSearchService submissionSearchService;
+    private final FormDependencyIndex formDependencyIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<Form> getFormsByCompany(String companyId) {
         log.info("Fetching forms for company: {}", companyId);
         return formRepository.findByCompanyId(companyId);
     }
     
+    /**
+     * Get id, name, status, field count and timestamps of every form without reading fields or settings
+     */
+    public List<FormSummary> getFormSummaries(String companyId) {
+        log.info("Fetching form summaries for company: {}", companyId);
+        return formRepository.findSummariesByCompanyId(companyId);
+    }
+    
     public Optional<Form> getFormById(String companyId, String formId) {
         log.info("Fetching form {} for company: {}", formId, companyId);
         Optional<Form> form = formRepository.findByIdAndCompanyId(formId, companyId);
@@ -46,7 +62,9 @@ public class FormService {
         // Process list data sources before saving
         processFormDataSources(form, companyId);
         
-        return formRepository.save(form);
+        Form saved = formRepository.save(form);
+        formDependencyIndex.formSaved(companyId, saved.getId(), Set.of(), FormDependencyIndex.listIds(saved));
+        return saved;
     }
     
     public Form updateForm(String companyId, String formId, Form form) {
@@ -58,6 +76,8 @@ public class FormService {
         }
         
         Form updatedForm = existingForm.get();
+        boolean reindex = submissionSearchService.searchableFieldsChanged(updatedForm, form);
+        Set<String> previousListIds = FormDependencyIndex.listIds(updatedForm);
         updatedForm.setName(form.getName());
         updatedForm.setDescription(form.getDescription());
         updatedForm.setStatus(form.getStatus());
@@ -68,7 +88,13 @@ public class FormService {
         // Process list data sources before saving
         processFormDataSources(updatedForm, companyId);
         
-        return formRepository.save(updatedForm);
+        Form saved = formRepository.save(updatedForm);
+        formDependencyIndex.formSaved(companyId, formId, previousListIds, FormDependencyIndex.listIds(saved));
+        eventPublisher.publishEvent(new FormChangedEvent(companyId, formId));
+        if (reindex) {
+            submissionSearchService.reindexFormAsync(companyId, formId);
+        }
+        return saved;
     }
     
     public void deleteForm(String companyId, String formId) {
@@ -80,48 +106,57 @@ public class FormService {
         }
         
         formRepository.deleteById(formId);
+        submissionSearchService.deleteFormIndex(companyId, formId);
+        formDependencyIndex.formDeleted(formId, FormDependencyIndex.listIds(form.get()));
+        eventPublisher.publishEvent(new FormChangedEvent(companyId, formId));
     }
     
     /**
-     * Process form fields to resolve list data sources and populate options
+     * Process form fields to resolve list data sources and populate options.
+     * All lists referenced by the form are resolved together through the options cache.
      */
     private void processFormDataSources(Form form, String companyId) {
         if (form.getFields() == null) return;
         
+        Map<String, List<String>> listOptions = listOptionsResolver.resolve(form);
+        
         for (Form.FormField field : form.getFields()) {
             if (field.getDataSource() != null && "list".equals(field.getDataSource().getType())) {
-                try {
-                    // Get list field values and populate options
-                    List<String> fieldValues = listService.getListFieldValues(
-                        companyId,
-                        field.getDataSource().getListId(),
-                        field.getDataSource().getListField()
-                    );
-                    
-                    // Convert to options format
-                    if (field.getOptions() == null) {
-                        field.setOptions(Map.of());
-                    }
-                    
-                    // Add enum values to options
-                    field.getOptions().put("enum", fieldValues);
-                    
-                    log.debug("Processed list data source for field {}: {} values", 
-                        field.getLabel(), fieldValues.size());
-                        
-                } catch (Exception e) {
-                    log.warn("Failed to process list data source for field {}: {}", 
-                        field.getLabel(), e.getMessage());
+                List<String> fieldValues = listOptions.get(field.getId());
+                if (fieldValues == null) {
+                    log.warn("Failed to process list data source for field {}: list {} not found", 
+                        field.getLabel(), field.getDataSource().getListId());
+                    continue;
                 }
+                
+                // Copy so options deserialized as immutable maps can be extended
+                Map<String, Object> options = field.getOptions() != null 
+                    ? new HashMap<>(field.getOptions()) 
+                    : new HashMap<>();
+                
+                // Add enum values to options
+                options.put("enum", fieldValues);
+                field.setOptions(options);
+                
+                log.debug("Processed list data source for field {}: {} values", 
+                    field.getLabel(), fieldValues.size());
             }
         }
     }
     
     /**
-     * Get a form with resolved data sources for form rendering
+     * Get a form for rendering without resolving its data sources yet, so the caller can read
+     * the versions of its lists first and then call resolveDataSources
      */
     public Optional<Form> getFormForRendering(String companyId, String formId) {
         log.info("Getting form {} for rendering in company: {}", formId, companyId);
-        return getFormById(companyId, formId);
+        return formRepository.findByIdAndCompanyId(formId, companyId);
+    }
+    
+    /**
+     * Populate the options of list-backed fields of a form returned by getFormForRendering
+     */
+    public void resolveDataSources(Form form) {
+        processFormDataSources(form, form.getCompanyId());
     }
 }
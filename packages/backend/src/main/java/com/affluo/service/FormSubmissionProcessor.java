@@ -4,10 +4,12 @@ import com.affluo.model.Form;
 import com.affluo.model.FormSubmission;
 import com.affluo.model.InventoryItem;
 import com.affluo.dto.InventoryAdjustmentRequest;
+import com.affluo.ratelimit.TenantAdmissionService;
 import com.affluo.repository.mongo.FormRepository;
 import com.affluo.repository.mongo.InventoryItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -24,23 +26,30 @@ public class FormSubmissionProcessor {
     private final InventoryService inventoryService;
     private final FormRepository formRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final TenantAdmissionService tenantAdmissionService;
+    private final SubmissionPayloadResolver payloadResolver;
     
     /**
      * Process a form submission and automatically detect inventory adjustments
      */
     public void processFormSubmission(FormSubmission submission) {
+        // Get the form to understand its structure
+        Optional<Form> formOpt = formRepository.findById(submission.getFormId());
+        if (formOpt.isEmpty()) {
+            log.error("Form not found for submission: {}", submission.getId());
+            return;
+        }
+        
+        processFormSubmission(submission, formOpt.get());
+    }
+    
+    /**
+     * Process a form submission against an already loaded form
+     */
+    public void processFormSubmission(FormSubmission submission, Form form) {
         log.info("Processing form submission: {}", submission.getId());
         
         try {
-            // Get the form to understand its structure
-            Optional<Form> formOpt = formRepository.findById(submission.getFormId());
-            if (formOpt.isEmpty()) {
-                log.error("Form not found for submission: {}", submission.getId());
-                return;
-            }
-            
-            Form form = formOpt.get();
-            
             // Check if this form affects inventory
             if (!isInventoryForm(form)) {
                 log.info("Form {} does not affect inventory, skipping processing", form.getId());
@@ -70,11 +79,35 @@ public class FormSubmissionProcessor {
         }
     }
     
+    /**
+     * Process a form submission on the submission processing pool.
+     * Failures are already recorded on the submission by InventoryService, so they are only logged here.
+     * The caller must have reserved a queue slot with TenantAdmissionService.tryEnqueue.
+     */
+    @Async("submissionProcessingExecutor")
+    public void processFormSubmissionAsync(FormSubmission submission, Form form) {
+        try {
+            processFormSubmission(submission, form);
+        } catch (Exception e) {
+            log.warn("Asynchronous processing failed for submission {}: {}", submission.getId(), e.getMessage());
+        } finally {
+            tenantAdmissionService.release(submission.getCompanyId());
+        }
+    }
+    
+    /**
+     * Whether submissions of this form are routed to inventory processing
+     */
+    public boolean affectsInventory(Form form) {
+        return isInventoryForm(form);
+    }
+    
     /**
      * Check if a form affects inventory
      */
     private boolean isInventoryForm(Form form) {
         // Check form name/keywords for inventory-related forms
+        if (form.getName() == null) return false;
         String formName = form.getName().toLowerCase();
         return formName.contains("inventory") || 
                formName.contains("stock") || 
@@ -128,9 +161,11 @@ public class FormSubmissionProcessor {
                 Object itemValue = data.get(fieldId);
                 if (itemValue != null) {
                     // Find the corresponding quantity field
-                    Integer quantity = findQuantityForItem(form, data, fieldId);
+                    String quantityFieldId = findQuantityFieldForItem(form, data, fieldId);
+                    Integer quantity = quantityFieldId != null ? parseQuantity(data.get(quantityFieldId)) : null;
                     if (quantity != null && quantity > 0) {
-                        InventoryAdjustmentRequest.ItemAdjustment adjustment = createItemAdjustment(itemValue.toString(), quantity, data);
+                        InventoryAdjustmentRequest.ItemAdjustment adjustment = createItemAdjustment(submission.getCompanyId(), itemValue.toString(), quantity,
+                            payloadResolver.linePayload(data, fieldId, quantityFieldId));
                         if (adjustment != null) {
                             adjustments.add(adjustment);
                         }
@@ -147,7 +182,7 @@ public class FormSubmissionProcessor {
                     String sku = item.get("sku").toString();
                     Integer quantity = Integer.parseInt(item.get("quantity").toString());
                     if (quantity > 0) {
-                        InventoryAdjustmentRequest.ItemAdjustment adjustment = createItemAdjustmentFromSku(sku, quantity, item);
+                        InventoryAdjustmentRequest.ItemAdjustment adjustment = createItemAdjustmentFromSku(submission.getCompanyId(), sku, quantity, item);
                         if (adjustment != null) {
                             adjustments.add(adjustment);
                         }
@@ -171,26 +206,23 @@ public class FormSubmissionProcessor {
     }
     
     /**
-     * Find quantity field for a given item field
+     * Find the id of the quantity field for a given item field
      */
-    private Integer findQuantityForItem(Form form, Map<String, Object> data, String itemFieldId) {
+    private String findQuantityFieldForItem(Form form, Map<String, Object> data, String itemFieldId) {
         // Look for quantity field with similar naming pattern
         String quantityFieldId = itemFieldId.replace("item", "quantity")
                                           .replace("product", "quantity")
                                           .replace("sku", "quantity");
         
         if (data.containsKey(quantityFieldId)) {
-            Object value = data.get(quantityFieldId);
-            return parseQuantity(value);
+            return quantityFieldId;
         }
         
         // Look for any field containing "quantity" in the name
         for (Form.FormField field : form.getFields()) {
             if (field.getLabel().toLowerCase().contains("quantity")) {
-                Object value = data.get(field.getId());
-                Integer quantity = parseQuantity(value);
-                if (quantity != null) {
-                    return quantity;
+                if (parseQuantity(data.get(field.getId())) != null) {
+                    return field.getId();
                 }
             }
         }
@@ -219,13 +251,13 @@ public class FormSubmissionProcessor {
     /**
      * Create item adjustment from inventory item ID or SKU
      */
-    private InventoryAdjustmentRequest.ItemAdjustment createItemAdjustment(String itemIdentifier, Integer quantity, Map<String, Object> data) {
+    private InventoryAdjustmentRequest.ItemAdjustment createItemAdjustment(String companyId, String itemIdentifier, Integer quantity, Map<String, Object> data) {
         // Try to find inventory item by ID first, then by SKU
         Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemIdentifier);
         
         if (itemOpt.isEmpty()) {
             // Try to find by SKU
-            itemOpt = inventoryItemRepository.findByCompanyIdAndSku(submission.getCompanyId(), itemIdentifier);
+            itemOpt = inventoryItemRepository.findByCompanyIdAndSku(companyId, itemIdentifier);
         }
         
         if (itemOpt.isEmpty()) {
@@ -248,8 +280,8 @@ public class FormSubmissionProcessor {
     /**
      * Create item adjustment from SKU
      */
-    private InventoryAdjustmentRequest.ItemAdjustment createItemAdjustmentFromSku(String sku, Integer quantity, Map<String, Object> itemData) {
-        Optional<InventoryItem> itemOpt = inventoryItemRepository.findByCompanyIdAndSku(submission.getCompanyId(), sku);
+    private InventoryAdjustmentRequest.ItemAdjustment createItemAdjustmentFromSku(String companyId, String sku, Integer quantity, Map<String, Object> itemData) {
+        Optional<InventoryItem> itemOpt = inventoryItemRepository.findByCompanyIdAndSku(companyId, sku);
         
         if (itemOpt.isEmpty()) {
             log.warn("Inventory item not found for SKU: {}", sku);
@@ -284,7 +316,7 @@ public class FormSubmissionProcessor {
         request.setReason(determineReason(adjustmentType, submission));
         request.setReferenceNumber(generateReferenceNumber(submission));
         request.setNotes("Auto-processed from form submission");
-        request.setMetadata(submission.getData());
+        request.setMetadata(payloadResolver.submissionPayload(submission.getData()));
         request.setItems(adjustments);
         
         return request;
@@ -0,0 +1,331 @@
+package com.affluo.service;
+
+import com.affluo.dto.CreateSubmissionRequest;
+import com.affluo.dto.FormSubmissionSummary;
+import com.affluo.dto.SubmissionIngestResponse;
+import com.affluo.model.Form;
+import com.affluo.model.FormSubmission;
+import com.affluo.ratelimit.TenantAdmissionService;
+import com.affluo.repository.mongo.FormRepository;
+import com.affluo.repository.mongo.FormSubmissionRepository;
+import com.affluo.validation.CompiledFormValidator;
+import com.affluo.validation.FormValidatorCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class FormSubmissionService {
+
+    private final FormRepository formRepository;
+    private final FormSubmissionRepository formSubmissionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FormSubmissionProcessor formSubmissionProcessor;
+    private final ObjectMapper objectMapper;
+    private final FormValidatorCache formValidatorCache;
+    private final TenantAdmissionService tenantAdmissionService;
+    private final FormAnalyticsService formAnalyticsService;
+    private final SubmissionSearchService submissionSearchService;
+    private final Timer validationTimer;
+
+    @Value("${submissions.ingest.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${submissions.ingest.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${inventory.retry.pending-grace-period:5m}")
+    private Duration pendingGracePeriod;
+
+    public FormSubmissionService(FormRepository formRepository,
+                                 FormSubmissionRepository formSubmissionRepository,
+                                 MongoTemplate mongoTemplate,
+                                 FormSubmissionProcessor formSubmissionProcessor,
+                                 ObjectMapper objectMapper,
+                                 FormValidatorCache formValidatorCache,
+                                 TenantAdmissionService tenantAdmissionService,
+                                 FormAnalyticsService formAnalyticsService,
+                                 SubmissionSearchService submissionSearchService,
+                                 MeterRegistry meterRegistry) {
+        this.formRepository = formRepository;
+        this.formSubmissionRepository = formSubmissionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.formSubmissionProcessor = formSubmissionProcessor;
+        this.objectMapper = objectMapper;
+        this.formValidatorCache = formValidatorCache;
+        this.tenantAdmissionService = tenantAdmissionService;
+        this.formAnalyticsService = formAnalyticsService;
+        this.submissionSearchService = submissionSearchService;
+        this.validationTimer = Timer.builder("submissions.validation")
+            .description("Time to validate a single submission against its compiled form validator")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get a page of submission summaries for list views
+     */
+    public Page<FormSubmissionSummary> getSubmissionSummaries(String companyId, String formId, String status,
+                                                              String inventoryStatus, LocalDateTime submittedFrom,
+                                                              LocalDateTime submittedTo, Pageable pageable) {
+        log.info("Fetching submission summaries for company: {}", companyId);
+        return formSubmissionRepository.findSummaries(companyId, formId, status, inventoryStatus,
+            submittedFrom, submittedTo, pageable);
+    }
+
+    /**
+     * Get a full submission including its data payload
+     */
+    public Optional<FormSubmission> getSubmission(String companyId, String submissionId) {
+        log.info("Fetching submission {} for company: {}", submissionId, companyId);
+        return formSubmissionRepository.findByIdAndCompanyId(submissionId, companyId);
+    }
+
+    /**
+     * Create a single submission for a form
+     */
+    public SubmissionIngestResponse.SubmissionResult createSubmission(String companyId, String formId,
+                                                                     CreateSubmissionRequest request,
+                                                                     String username) {
+        return ingestSubmissions(companyId, formId, List.of(request), username).getResults().get(0);
+    }
+
+    /**
+     * Create a batch of submissions uploaded as a JSON array
+     */
+    public SubmissionIngestResponse ingestSubmissions(String companyId, String formId,
+                                                      List<CreateSubmissionRequest> requests,
+                                                      String username) {
+        log.info("Ingesting {} submissions for form {} in company: {}", requests.size(), formId, companyId);
+
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch exceeds maximum of " + maxBatchSize + " submissions");
+        }
+        tenantAdmissionService.admit(companyId, requests.size());
+
+        Form form = getForm(companyId, formId);
+        List<SubmissionIngestResponse.SubmissionResult> results = new ArrayList<>(requests.size());
+
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            List<CreateSubmissionRequest> chunk = requests.subList(start, Math.min(start + chunkSize, requests.size()));
+            results.addAll(ingestChunk(form, chunk, start, username));
+        }
+
+        return toResponse(results);
+    }
+
+    /**
+     * Create submissions from an NDJSON stream, one submission per line.
+     * Lines are read and persisted chunk by chunk so memory stays bounded by the chunk size.
+     */
+    public SubmissionIngestResponse ingestSubmissionStream(String companyId, String formId,
+                                                           InputStream inputStream,
+                                                           String username) throws IOException {
+        log.info("Ingesting submission stream for form {} in company: {}", formId, companyId);
+        // Admit the stream up front and charge each chunk as it is read
+        tenantAdmissionService.admit(companyId, 1);
+
+        Form form = getForm(companyId, formId);
+        ObjectReader reader = objectMapper.readerFor(CreateSubmissionRequest.class);
+        List<SubmissionIngestResponse.SubmissionResult> results = new ArrayList<>();
+        List<CreateSubmissionRequest> chunk = new ArrayList<>(chunkSize);
+        List<SubmissionIngestResponse.SubmissionResult> parseErrors = new ArrayList<>();
+        int chunkStart = 0;
+        int index = 0;
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                try {
+                    chunk.add(reader.readValue(line));
+                } catch (IOException e) {
+                    // Keep the slot so indexes still line up with the uploaded lines
+                    chunk.add(null);
+                    parseErrors.add(rejected(index, List.of("Malformed JSON: " + e.getOriginalMessage())));
+                }
+                index++;
+
+                if (chunk.size() == chunkSize) {
+                    tenantAdmissionService.charge(companyId, chunk.size());
+                    results.addAll(ingestChunk(form, chunk, chunkStart, username));
+                    chunkStart = index;
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            tenantAdmissionService.charge(companyId, chunk.size());
+            results.addAll(ingestChunk(form, chunk, chunkStart, username));
+        }
+
+        // Replace the placeholder results of unparseable lines with their parse errors
+        for (SubmissionIngestResponse.SubmissionResult error : parseErrors) {
+            results.set(error.getIndex(), error);
+        }
+
+        return toResponse(results);
+    }
+
+    /**
+     * Validate a chunk in parallel, persist the valid submissions with a single insertMany
+     * and hand inventory-affecting ones to the processor asynchronously.
+     */
+    private List<SubmissionIngestResponse.SubmissionResult> ingestChunk(Form form,
+                                                                       List<CreateSubmissionRequest> chunk,
+                                                                       int offset,
+                                                                       String username) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean affectsInventory = formSubmissionProcessor.affectsInventory(form);
+        CompiledFormValidator validator = formValidatorCache.getValidator(form);
+
+        List<List<String>> validationErrors = chunk.parallelStream()
+            .map(request -> validateSubmission(validator, request))
+            .toList();
+
+        SubmissionIngestResponse.SubmissionResult[] results = new SubmissionIngestResponse.SubmissionResult[chunk.size()];
+        List<FormSubmission> valid = new ArrayList<>(chunk.size());
+        List<Integer> validIndexes = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            List<String> errors = validationErrors.get(i);
+            if (!errors.isEmpty()) {
+                results[i] = rejected(offset + i, errors);
+                continue;
+            }
+            valid.add(toSubmission(form, chunk.get(i), username, affectsInventory, now));
+            validIndexes.add(i);
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                Collection<FormSubmission> inserted = mongoTemplate.insert(valid, FormSubmission.class);
+                log.debug("Inserted {} submissions for form {}", inserted.size(), form.getId());
+            } catch (DataAccessException e) {
+                log.error("Failed to persist submission chunk for form {}: {}", form.getId(), e.getMessage());
+                for (int i : validIndexes) {
+                    results[i] = new SubmissionIngestResponse.SubmissionResult(
+                        offset + i, null, "FAILED", List.of("Persistence failed: " + e.getMessage()));
+                }
+                return List.of(results);
+            }
+
+            formAnalyticsService.recordSubmissions(form, valid);
+            submissionSearchService.indexSubmissions(form, valid);
+
+            for (int v = 0; v < valid.size(); v++) {
+                int i = validIndexes.get(v);
+                results[i] = new SubmissionIngestResponse.SubmissionResult(offset + i, valid.get(v).getId(), "CREATED", List.of());
+            }
+
+            if (affectsInventory) {
+                valid.stream()
+                    .filter(submission -> "PENDING".equals(submission.getInventoryStatus()))
+                    .forEach(submission -> dispatch(submission, form));
+            }
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Hand a submission to the processing pool if the company has queue budget left.
+     * Deferred submissions stay PENDING and are picked up by InventoryRetryService.
+     */
+    private void dispatch(FormSubmission submission, Form form) {
+        if (!tenantAdmissionService.tryEnqueue(submission.getCompanyId())) {
+            log.debug("Deferring submission {}: company queue is full", submission.getId());
+            return;
+        }
+        try {
+            formSubmissionProcessor.processFormSubmissionAsync(submission, form);
+        } catch (TaskRejectedException e) {
+            tenantAdmissionService.release(submission.getCompanyId());
+            log.debug("Deferring submission {}: processing pool is saturated", submission.getId());
+        }
+    }
+
+    /**
+     * Validate submission data against the form's compiled validator
+     */
+    private List<String> validateSubmission(CompiledFormValidator validator, CreateSubmissionRequest request) {
+        if (request == null) {
+            return List.of("Submission is empty");
+        }
+        if (request.getData() == null) {
+            return List.of("Submission data is required");
+        }
+
+        long start = System.nanoTime();
+        List<CompiledFormValidator.FieldError> errors = validator.validate(request.getData());
+        validationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return errors.stream().map(CompiledFormValidator.FieldError::toString).toList();
+    }
+
+    private FormSubmission toSubmission(Form form, CreateSubmissionRequest request, String username,
+                                        boolean affectsInventory, LocalDateTime now) {
+        FormSubmission submission = new FormSubmission();
+        submission.setId(UUID.randomUUID().toString());
+        submission.setCompanyId(form.getCompanyId());
+        submission.setFormId(form.getId());
+        submission.setData(request.getData());
+        submission.setStatus(request.getStatus() != null ? request.getStatus() : "SUBMITTED");
+        submission.setSubmittedBy(request.getSubmittedBy() != null ? request.getSubmittedBy() : username);
+        submission.setSubmittedByEmail(request.getSubmittedByEmail());
+        submission.setSubmittedAt(request.getSubmittedAt() != null ? request.getSubmittedAt() : now);
+        submission.setCreatedAt(now);
+        submission.setUpdatedAt(now);
+        submission.setLastModifiedBy(username);
+        submission.setMetadata(request.getMetadata());
+        submission.setAffectsInventory(affectsInventory);
+        submission.setInventoryAdjustments(new ArrayList<>());
+        if (affectsInventory && !"DRAFT".equals(submission.getStatus())) {
+            // Picked up by the retry scheduler if asynchronous processing never completes
+            submission.setInventoryStatus("PENDING");
+            submission.setInventoryAttempts(0);
+            submission.setNextInventoryAttemptAt(now.plus(pendingGracePeriod));
+        }
+        return submission;
+    }
+
+    private Form getForm(String companyId, String formId) {
+        return formRepository.findByIdAndCompanyId(formId, companyId)
+            .orElseThrow(() -> new IllegalArgumentException("Form not found"));
+    }
+
+    private SubmissionIngestResponse.SubmissionResult rejected(int index, List<String> errors) {
+        return new SubmissionIngestResponse.SubmissionResult(index, null, "REJECTED", errors);
+    }
+
+    private SubmissionIngestResponse toResponse(List<SubmissionIngestResponse.SubmissionResult> results) {
+        int accepted = (int) results.stream().filter(result -> "CREATED".equals(result.getStatus())).count();
+        return new SubmissionIngestResponse(accepted, results.size() - accepted, results);
+    }
+}
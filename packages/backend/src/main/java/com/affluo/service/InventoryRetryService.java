@@ -0,0 +1,286 @@
+package com.affluo.service;
+
+import com.affluo.model.DeadLetterSubmission;
+import com.affluo.model.FormSubmission;
+import com.affluo.repository.mongo.DeadLetterSubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background retry engine for inventory processing.
+ *
+ * Picks up FAILED submissions and PENDING submissions whose asynchronous processing never completed,
+ * leases them with findAndModify so only one node works on a submission, and retries them with
+ * exponential backoff. Submissions that keep failing are moved to the inventory_dead_letters collection.
+ */
+@Service
+@Slf4j
+public class InventoryRetryService {
+
+    private static final List<String> RETRYABLE_STATUSES = List.of("PENDING", "FAILED");
+
+    private final MongoTemplate mongoTemplate;
+    private final FormSubmissionProcessor formSubmissionProcessor;
+    private final DeadLetterSubmissionRepository deadLetterSubmissionRepository;
+
+    private final ExecutorService retryExecutor;
+    private final Semaphore permits;
+
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter skippedCounter;
+    private final Counter deadLetterCounter;
+    private final AtomicLong queueSize = new AtomicLong();
+    private final AtomicLong oldestDueAgeSeconds = new AtomicLong();
+
+    @Value("${inventory.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${inventory.retry.base-backoff:30s}")
+    private Duration baseBackoff;
+
+    @Value("${inventory.retry.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${inventory.retry.lease:10m}")
+    private Duration lease;
+
+    @Value("${inventory.idempotency.applied-retention:30d}")
+    private Duration appliedRetention;
+
+    public InventoryRetryService(MongoTemplate mongoTemplate,
+                                 FormSubmissionProcessor formSubmissionProcessor,
+                                 DeadLetterSubmissionRepository deadLetterSubmissionRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${inventory.retry.concurrency:4}") int concurrency) {
+        this.mongoTemplate = mongoTemplate;
+        this.formSubmissionProcessor = formSubmissionProcessor;
+        this.deadLetterSubmissionRepository = deadLetterSubmissionRepository;
+        this.retryExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.permits = new Semaphore(concurrency);
+
+        this.successCounter = retryCounter(meterRegistry, "success");
+        this.failureCounter = retryCounter(meterRegistry, "failure");
+        this.skippedCounter = retryCounter(meterRegistry, "skipped");
+        this.deadLetterCounter = retryCounter(meterRegistry, "dead_letter");
+        Gauge.builder("inventory.retry.queue.size", queueSize, AtomicLong::get)
+            .description("Submissions waiting for inventory processing")
+            .register(meterRegistry);
+        Gauge.builder("inventory.retry.queue.oldest.age", oldestDueAgeSeconds, AtomicLong::get)
+            .description("Seconds the oldest due submission has been waiting")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Claim due submissions up to the free concurrency and retry them
+     */
+    @Scheduled(fixedDelayString = "${inventory.retry.poll-interval:15000}")
+    public void retryDueSubmissions() {
+        LocalDateTime now = LocalDateTime.now();
+        refreshQueueMetrics(now);
+
+        while (permits.tryAcquire()) {
+            FormSubmission submission = claimNext(now);
+            if (submission == null) {
+                permits.release();
+                return;
+            }
+
+            retryExecutor.execute(() -> {
+                try {
+                    retry(submission);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Lease the next due submission by pushing its next attempt past the lease window
+     */
+    private FormSubmission claimNext(LocalDateTime now) {
+        Query query = dueQuery(now)
+            .with(Sort.by(Sort.Direction.ASC, "nextInventoryAttemptAt"));
+        Update update = new Update()
+            .set("nextInventoryAttemptAt", now.plus(lease))
+            .inc("inventoryAttempts", 1);
+
+        return mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), FormSubmission.class);
+    }
+
+    private void retry(FormSubmission submission) {
+        int attempt = submission.getInventoryAttempts() != null ? submission.getInventoryAttempts() : 1;
+        log.info("Retrying inventory processing for submission {} (attempt {})", submission.getId(), attempt);
+
+        try {
+            formSubmissionProcessor.processFormSubmission(submission);
+        } catch (Exception e) {
+            failureCounter.increment();
+            if (attempt >= maxAttempts) {
+                deadLetter(submission, attempt, e.getMessage());
+            } else {
+                scheduleNextAttempt(submission.getId(), attempt, e.getMessage());
+            }
+            return;
+        }
+
+        FormSubmission current = mongoTemplate.findById(submission.getId(), FormSubmission.class);
+        if (current != null && "PROCESSED".equals(current.getInventoryStatus())) {
+            successCounter.increment();
+        } else {
+            // Nothing to apply (not an inventory form, no matching items): stop retrying
+            skippedCounter.increment();
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(submission.getId())),
+                new Update()
+                    .set("inventoryStatus", "SKIPPED")
+                    .unset("nextInventoryAttemptAt")
+                    .set("updatedAt", LocalDateTime.now()),
+                FormSubmission.class);
+        }
+    }
+
+    private void scheduleNextAttempt(String submissionId, int attempt, String error) {
+        LocalDateTime nextAttempt = LocalDateTime.now().plus(backoff(attempt));
+        log.warn("Inventory processing failed for submission {} (attempt {}), next attempt at {}: {}",
+            submissionId, attempt, nextAttempt, error);
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(submissionId)),
+            new Update()
+                .set("inventoryStatus", "FAILED")
+                .set("nextInventoryAttemptAt", nextAttempt)
+                .set("updatedAt", LocalDateTime.now()),
+            FormSubmission.class);
+    }
+
+    private void deadLetter(FormSubmission submission, int attempts, String error) {
+        log.error("Moving submission {} to dead letters after {} attempts: {}", submission.getId(), attempts, error);
+        LocalDateTime now = LocalDateTime.now();
+
+        DeadLetterSubmission deadLetter = new DeadLetterSubmission();
+        deadLetter.setId(submission.getId());
+        deadLetter.setCompanyId(submission.getCompanyId());
+        deadLetter.setFormId(submission.getFormId());
+        deadLetter.setFormSubmissionId(submission.getId());
+        deadLetter.setAttempts(attempts);
+        deadLetter.setLastError(error);
+        deadLetter.setSubmittedAt(submission.getSubmittedAt());
+        deadLetter.setDeadLetteredAt(now);
+        deadLetterSubmissionRepository.save(deadLetter);
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(submission.getId())),
+            new Update()
+                .set("inventoryStatus", "DEAD_LETTERED")
+                .unset("nextInventoryAttemptAt")
+                .set("processingNotes", "Inventory processing abandoned after " + attempts + " attempts: " + error)
+                .set("updatedAt", now),
+            FormSubmission.class);
+
+        deadLetterCounter.increment();
+    }
+
+    /**
+     * Get dead-lettered submissions that have not been requeued
+     */
+    public List<DeadLetterSubmission> getDeadLetters(String companyId) {
+        return deadLetterSubmissionRepository.findByCompanyIdAndRequeuedAtIsNull(companyId);
+    }
+
+    /**
+     * Put a dead-lettered submission back on the retry queue with a fresh attempt budget
+     */
+    public void requeue(String companyId, String deadLetterId, String requeuedBy) {
+        DeadLetterSubmission deadLetter = deadLetterSubmissionRepository.findByIdAndCompanyId(deadLetterId, companyId)
+            .orElseThrow(() -> new IllegalArgumentException("Dead letter not found"));
+        LocalDateTime now = LocalDateTime.now();
+
+        // Items forget applied submissions after the retention; a retry finishing later could apply them twice
+        LocalDateTime retryDeadline = now.plus(maxBackoff.multipliedBy(maxAttempts));
+        if (deadLetter.getSubmittedAt() != null
+                && deadLetter.getSubmittedAt().plus(appliedRetention).isBefore(retryDeadline)) {
+            throw new IllegalArgumentException("Dead letter is too old to requeue safely; adjust inventory manually");
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(deadLetter.getFormSubmissionId())),
+            new Update()
+                .set("inventoryStatus", "FAILED")
+                .set("inventoryAttempts", 0)
+                .set("nextInventoryAttemptAt", now)
+                .set("lastModifiedBy", requeuedBy)
+                .set("updatedAt", now),
+            FormSubmission.class);
+
+        deadLetter.setRequeuedBy(requeuedBy);
+        deadLetter.setRequeuedAt(now);
+        deadLetterSubmissionRepository.save(deadLetter);
+        log.info("Requeued dead-lettered submission {} for company: {}", deadLetterId, companyId);
+    }
+
+    private void refreshQueueMetrics(LocalDateTime now) {
+        Query retryable = Query.query(Criteria.where("inventoryStatus").in(RETRYABLE_STATUSES));
+        queueSize.set(mongoTemplate.count(retryable, FormSubmission.class));
+
+        Query oldest = dueQuery(now).with(Sort.by(Sort.Direction.ASC, "nextInventoryAttemptAt"));
+        oldest.fields().include("nextInventoryAttemptAt");
+        FormSubmission oldestDue = mongoTemplate.findOne(oldest, FormSubmission.class);
+        oldestDueAgeSeconds.set(oldestDue == null || oldestDue.getNextInventoryAttemptAt() == null
+            ? 0 : Duration.between(oldestDue.getNextInventoryAttemptAt(), now).toSeconds());
+    }
+
+    private Query dueQuery(LocalDateTime now) {
+        return Query.query(Criteria.where("inventoryStatus").in(RETRYABLE_STATUSES)
+            .orOperator(
+                Criteria.where("nextInventoryAttemptAt").lte(now),
+                Criteria.where("nextInventoryAttemptAt").is(null)
+            ));
+    }
+
+    /**
+     * Exponential backoff with +/-20% jitter so failures from one burst do not retry in lockstep
+     */
+    private Duration backoff(int attempt) {
+        long base = baseBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.retry")
+            .description("Inventory processing retries by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdown();
+    }
+}
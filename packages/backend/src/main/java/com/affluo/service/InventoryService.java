@@ -9,11 +9,23 @@ import com.affluo.repository.mongo.InventoryMovementRepository;
 import com.affluo.repository.mongo.FormSubmissionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,11 +39,19 @@ public class InventoryService {
     private final InventoryItemRepository inventoryItemRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
     private final FormSubmissionRepository formSubmissionRepository;
+    private final MovementIdempotencyGuard idempotencyGuard;
+    private final SubmissionPayloadResolver payloadResolver;
+    private final MongoTemplate mongoTemplate;
+    
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+    
+    // How long each item remembers an applied submission; must cover every retry, including requeued dead letters
+    @Value("${inventory.idempotency.applied-retention:30d}")
+    private Duration appliedRetention;
     
     /**
      * Process inventory adjustments from form submissions
      */
-    @Transactional
     public void processInventoryAdjustment(InventoryAdjustmentRequest request) {
         log.info("Processing inventory adjustment for submission: {}", request.getFormSubmissionId());
         
@@ -44,8 +64,18 @@ public class InventoryService {
             
             FormSubmission submission = submissionOpt.get();
             
+            // Redelivery of a submission that has already been fully applied
+            if ("PROCESSED".equals(submission.getInventoryStatus())) {
+                log.info("Submission {} already processed, ignoring duplicate delivery", request.getFormSubmissionId());
+                return;
+            }
+            
+            if (submission.getInventoryAdjustments() == null) {
+                submission.setInventoryAdjustments(new ArrayList<>());
+            }
+            
             // Process each item adjustment
-            for (InventoryAdjustmentRequest.ItemAdjustment itemAdjustment : request.getItems()) {
+            for (InventoryAdjustmentRequest.ItemAdjustment itemAdjustment : mergeByItem(request)) {
                 processItemAdjustment(request, itemAdjustment, submission);
             }
             
@@ -74,45 +104,144 @@ public class InventoryService {
     }
     
     /**
-     * Process individual item adjustment
+     * Collapse lines for the same item so each (submission, item) pair yields exactly one movement
+     */
+    private Collection<InventoryAdjustmentRequest.ItemAdjustment> mergeByItem(InventoryAdjustmentRequest request) {
+        Map<String, InventoryAdjustmentRequest.ItemAdjustment> merged = new LinkedHashMap<>();
+        boolean absolute = "ADJUSTMENT".equalsIgnoreCase(request.getAdjustmentType());
+        
+        for (InventoryAdjustmentRequest.ItemAdjustment line : request.getItems()) {
+            merged.merge(line.getInventoryItemId(), line, (first, next) -> {
+                if (absolute) {
+                    return next; // Direct adjustments set the level, so the last line wins
+                }
+                return new InventoryAdjustmentRequest.ItemAdjustment(
+                    first.getInventoryItemId(), first.getSku(), first.getQuantity() + next.getQuantity(),
+                    first.getUnitPrice(), first.getFromLocation(), first.getToLocation(), first.getItemMetadata());
+            });
+        }
+        return merged.values();
+    }
+    
+    /**
+     * Process individual item adjustment.
+     *
+     * The stock change and the idempotency claim are one atomic write: the item is updated only if its
+     * stock is still the value the new level was computed from and the submission is not yet in its
+     * appliedSubmissions marker. The movement is inserted afterwards as a record; a retry after a failure
+     * between the two writes finds the marker and inserts the missing movement without touching stock.
+     * The same write drops markers older than inventory.idempotency.applied-retention.
      */
     private void processItemAdjustment(InventoryAdjustmentRequest request, 
                                      InventoryAdjustmentRequest.ItemAdjustment itemAdjustment,
                                      FormSubmission submission) {
         
-        // Find inventory item
-        Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemAdjustment.getInventoryItemId());
-        if (itemOpt.isEmpty()) {
-            throw new IllegalArgumentException("Inventory item not found: " + itemAdjustment.getInventoryItemId());
-        }
-        
-        InventoryItem item = itemOpt.get();
+        String submissionId = request.getFormSubmissionId();
+        String itemId = itemAdjustment.getInventoryItemId();
         
-        // Validate company ownership
-        if (!item.getCompanyId().equals(request.getCompanyId())) {
-            throw new IllegalArgumentException("Inventory item does not belong to company");
+        // Only a fast path: a miss is decided by the item's marker below, read with the item anyway
+        if (idempotencyGuard.isRecentlyApplied(submissionId, itemId)) {
+            log.info("Skipping duplicate adjustment of item {} for submission {}", itemId, submissionId);
+            return;
         }
         
-        // Calculate new stock level
-        int stockBefore = item.getCurrentStock();
-        int stockAfter = calculateNewStockLevel(stockBefore, itemAdjustment.getQuantity(), request.getAdjustmentType());
-        
-        // Validate stock level
-        validateStockLevel(stockAfter, item);
-        
-        // Create inventory movement record
-        InventoryMovement movement = createInventoryMovement(request, itemAdjustment, item, stockBefore, stockAfter);
-        inventoryMovementRepository.save(movement);
-        
-        // Update inventory item
-        updateInventoryItem(item, stockAfter, itemAdjustment, movement.getId());
-        inventoryItemRepository.save(item);
+        for (int attempt = 1; ; attempt++) {
+            // Find inventory item
+            Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemId);
+            if (itemOpt.isEmpty()) {
+                throw new IllegalArgumentException("Inventory item not found: " + itemId);
+            }
+            
+            InventoryItem item = itemOpt.get();
+            
+            // Validate company ownership
+            if (!item.getCompanyId().equals(request.getCompanyId())) {
+                throw new IllegalArgumentException("Inventory item does not belong to company");
+            }
+            
+            // Stock already changed by an earlier attempt that failed before recording its movement
+            Optional<InventoryItem.AppliedSubmission> applied = item.findAppliedSubmission(submissionId);
+            if (applied.isPresent()) {
+                InventoryMovement movement = createInventoryMovement(request, itemAdjustment, item,
+                        applied.get().getStockBefore(), applied.get().getStockAfter());
+                movement.setId(applied.get().getMovementId());
+                recordMovement(movement);
+                idempotencyGuard.markApplied(submissionId, itemId);
+                updateFormSubmissionWithAdjustment(submission, item, itemAdjustment, movement);
+                log.info("Recorded missing movement for item {} of submission {}", item.getSku(), submissionId);
+                return;
+            }
+            
+            // Calculate new stock level
+            int stockBefore = item.getCurrentStock();
+            int stockAfter = calculateNewStockLevel(stockBefore, itemAdjustment.getQuantity(), request.getAdjustmentType());
+            
+            // Validate stock level
+            validateStockLevel(stockAfter, item);
+            
+            InventoryMovement movement = createInventoryMovement(request, itemAdjustment, item, stockBefore, stockAfter);
+            updateInventoryItem(item, stockAfter, itemAdjustment, movement.getId());
+            
+            Query claim = Query.query(Criteria.where("_id").is(itemId)
+                    .and("currentStock").is(stockBefore)
+                    .and("appliedSubmissions.formSubmissionId").ne(submissionId));
+            AggregationUpdate update = claimUpdate(item, stockAfter, new InventoryItem.AppliedSubmission(
+                    submissionId, movement.getId(), stockBefore, stockAfter, LocalDateTime.now()));
+            
+            if (mongoTemplate.updateFirst(claim, update, InventoryItem.class).getModifiedCount() == 0) {
+                // Stock moved underneath us or another node applied this submission: re-read and decide again
+                if (attempt >= MAX_CLAIM_ATTEMPTS) {
+                    throw new IllegalStateException("Inventory item " + itemId + " is being updated concurrently, retry later");
+                }
+                continue;
+            }
+            
+            recordMovement(movement);
+            idempotencyGuard.markApplied(submissionId, itemId);
+            
+            // Update form submission with adjustment details
+            updateFormSubmissionWithAdjustment(submission, item, itemAdjustment, movement);
+            
+            log.info("Processed inventory adjustment for item {}: {} -> {} ({} {})", 
+                    item.getSku(), stockBefore, stockAfter, itemAdjustment.getQuantity(), request.getAdjustmentType());
+            return;
+        }
+    }
+    
+    /**
+     * Build the stock change as one pipeline update that also appends the marker and drops expired markers
+     */
+    private AggregationUpdate claimUpdate(InventoryItem item, int stockAfter, InventoryItem.AppliedSubmission marker) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        Object cutoff = converter.convertToMongoType(LocalDateTime.now().minus(appliedRetention));
         
-        // Update form submission with adjustment details
-        updateFormSubmissionWithAdjustment(submission, item, itemAdjustment, movement);
+        Document retained = new Document("$filter", new Document("input",
+                new Document("$ifNull", List.of("$appliedSubmissions", List.of())))
+                .append("as", "applied")
+                .append("cond", new Document("$gte", List.of("$$applied.appliedAt", cutoff))));
+        Document set = new Document("currentStock", stockAfter)
+                .append("status", converter.convertToMongoType(item.getStatus()))
+                .append("totalValue", converter.convertToMongoType(item.getTotalValue()))
+                .append("lastMovementDate", converter.convertToMongoType(item.getLastMovementDate()))
+                .append("updatedAt", converter.convertToMongoType(item.getUpdatedAt()))
+                .append("totalMovements", new Document("$add", List.of(new Document("$ifNull", List.of("$totalMovements", 0)), 1)))
+                .append("appliedSubmissions", new Document("$concatArrays",
+                        List.of(retained, List.of(converter.convertToMongoType(marker)))));
         
-        log.info("Processed inventory adjustment for item {}: {} -> {} ({} {})", 
-                item.getSku(), stockBefore, stockAfter, itemAdjustment.getQuantity(), request.getAdjustmentType());
+        AggregationOperation stage = context -> new Document("$set", set);
+        return AggregationUpdate.from(List.of(stage));
+    }
+    
+    /**
+     * Insert a movement record, tolerating one already inserted by an earlier attempt
+     */
+    private void recordMovement(InventoryMovement movement) {
+        try {
+            inventoryMovementRepository.insert(movement);
+        } catch (DuplicateKeyException e) {
+            log.info("Movement for item {} of submission {} already recorded",
+                    movement.getInventoryItemId(), movement.getFormSubmissionId());
+        }
     }
     
     /**
@@ -246,6 +375,18 @@ public class InventoryService {
         return inventoryMovementRepository.findByCompanyIdAndFormSubmissionId(companyId, formSubmissionId);
     }
     
+    /**
+     * Get the full submission data behind a movement, hydrated on demand
+     */
+    public Optional<Map<String, Object>> getMovementSubmissionData(String companyId, String movementId) {
+        InventoryMovement movement = inventoryMovementRepository.findByIdAndCompanyId(movementId, companyId)
+            .orElseThrow(() -> new IllegalArgumentException("Inventory movement not found"));
+        if (movement.getMetadata() != null) {
+            return Optional.of(movement.getMetadata()); // Stored in full before reference storage was enabled
+        }
+        return payloadResolver.resolve(companyId, movement.getFormSubmissionId());
+    }
+    
     /**
      * Get low stock items
      */
@@ -1,29 +1,103 @@
 package com.affluo.service;
 
+import com.affluo.dto.DirectoryUser;
+import com.affluo.security.JwtPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and parser are built once. Verified tokens are kept in a short-lived cache, so a
+ * client repeating its token skips the HMAC check and the request is authenticated from memory.
+ * A cached token never outlives its own expiry.
+ */
 @Service
+@Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private static final String COMPANY_CLAIM = "companyId";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TEAMS_CLAIM = "teams";
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> verifiedTokens;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.verified-cache-size:100000}") long verifiedCacheSize,
+                      @Value("${jwt.verified-cache-ttl:60s}") Duration verifiedCacheTtl) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfter(Expiry.creating((String token, JwtPrincipal principal) -> {
+                long remaining = Duration.between(Instant.now(), principal.expiresAt()).toNanos();
+                return Duration.ofNanos(Math.max(0, Math.min(remaining, verifiedCacheTtl.toNanos())));
+            }))
+            .build();
+    }
+
+    /**
+     * Verify a token once and build its principal from the claims, without touching the database
+     *
+     * @return empty when the token is malformed, has a bad signature or has expired
+     */
+    public Optional<JwtPrincipal> authenticate(String token) {
+        JwtPrincipal cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+
+        try {
+            Claims claims = extractAllClaims(token);
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                claims.getId(),
+                claims.get(COMPANY_CLAIM, String.class),
+                claims.get(ROLE_CLAIM, String.class),
+                teamIds(claims),
+                claims.getExpiration().toInstant());
+            verifiedTokens.put(token, principal);
+            return Optional.of(principal);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -33,49 +107,54 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Issue a token for a user carrying the company, role and team claims the request filters authorize with.
+     * Claims are fixed for the token's lifetime; a role change takes effect with the next issued token.
+     */
+    public String generateToken(DirectoryUser user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(COMPANY_CLAIM, user.getCompanyId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        claims.put(TEAMS_CLAIM, user.getTeamIds() == null ? List.of() : user.getTeamIds());
+        return buildToken(claims, user.getUsername(), jwtExpiration);
+    }
+
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        return buildToken(extraClaims, userDetails.getUsername(), jwtExpiration);
     }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+    private String buildToken(Map<String, Object> extraClaims, String subject, long expiration) {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
+                .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        // Parsing already rejects expired tokens; one parse covers both checks
+        final Claims claims = extractAllClaims(token);
+        return userDetails.getUsername().equals(claims.getSubject()) && claims.getExpiration().after(new Date());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static Set<Long> teamIds(Claims claims) {
+        Object teams = claims.get(TEAMS_CLAIM);
+        if (!(teams instanceof Collection<?> ids)) return Set.of();
+        return ids.stream()
+            .filter(id -> id instanceof Number)
+            .map(id -> ((Number) id).longValue())
+            .collect(Collectors.toUnmodifiableSet());
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 }
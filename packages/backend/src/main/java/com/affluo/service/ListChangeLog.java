@@ -0,0 +1,228 @@
+package com.affluo.service;
+
+import com.affluo.dto.ListChanges;
+import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import com.affluo.model.ListItemTombstone;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Item-level change tracking for list delta sync.
+ *
+ * Added and updated items are found through their version stamp in list_items; removals are kept as
+ * tombstones until compaction. Compaction raises the list's compactedVersion, and clients asking for
+ * changes since an older version are told to resync.
+ *
+ * A write claims its version with begin, which records it in the list's pendingVersions in the same
+ * update that increments the version, and releases it with complete once its items are written.
+ * Deltas are capped below the oldest pending version, so a client is never handed a version whose
+ * items are still being written. A pending version older than lists.changes.pending-timeout belongs
+ * to a write that died; it is ignored and compaction forces clients behind it to resync.
+ */
+@Service
+@Slf4j
+public class ListChangeLog {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${lists.changes.tombstone-retention:7d}")
+    private Duration tombstoneRetention;
+
+    @Value("${lists.changes.pending-timeout:5m}")
+    private Duration pendingTimeout;
+
+    public ListChangeLog(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Claim the next version of a list for a write, marking it pending until complete is called
+     *
+     * @return the claimed version, or 0 when the list does not exist
+     */
+    public long begin(String listId) {
+        Date now = new Date();
+        Document nextVersion = new Document("$add", java.util.List.of(new Document("$ifNull", java.util.List.of("$version", 0L)), 1L));
+        Document set = new Document("version", nextVersion)
+            .append("updatedAt", now)
+            .append("pendingVersions", new Document("$concatArrays", java.util.List.of(
+                new Document("$ifNull", java.util.List.of("$pendingVersions", java.util.List.of())),
+                java.util.List.of(new Document("version", nextVersion).append("startedAt", now)))));
+
+        Query query = Query.query(Criteria.where("_id").is(listId));
+        query.fields().include("version");
+        AggregationOperation claim = context -> new Document("$set", set);
+        List updated = mongoTemplate.findAndModify(query, AggregationUpdate.from(java.util.List.of(claim)),
+            FindAndModifyOptions.options().returnNew(true), List.class);
+        return updated != null && updated.getVersion() != null ? updated.getVersion() : 0L;
+    }
+
+    /**
+     * Release a version claimed with begin, applying the write's net change to the item count
+     */
+    public void complete(String listId, long version, long itemDelta) {
+        Update update = new Update().pull("pendingVersions", Query.query(Criteria.where("version").is(version)));
+        if (itemDelta != 0) {
+            update.inc("itemCount", itemDelta);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(listId)), update, List.class);
+    }
+
+    /**
+     * Read the latest version of a list and whether any write to it is still pending
+     */
+    public WriteState writeState(String listId) {
+        Query query = Query.query(Criteria.where("_id").is(listId));
+        query.fields().include("version").include("pendingVersions");
+        List list = mongoTemplate.findOne(query, List.class);
+        if (list == null) return new WriteState(0L, false);
+        return new WriteState(list.getVersion() != null ? list.getVersion() : 0L,
+            list.getPendingVersions() != null && !list.getPendingVersions().isEmpty());
+    }
+
+    public record WriteState(long version, boolean pending) {
+        public boolean settled() {
+            return !pending;
+        }
+    }
+
+    public void recordRemoval(String listId, String itemId, long version) {
+        mongoTemplate.insert(new ListItemTombstone(new ObjectId().toHexString(), listId, itemId, version, LocalDateTime.now()));
+    }
+
+    /**
+     * Get the item changes after the given version, at most limit items per call
+     */
+    public ListChanges getChanges(List list, long since, int limit) {
+        long latest = list.getVersion() != null ? list.getVersion() : 0L;
+        long compacted = list.getCompactedVersion() != null ? list.getCompactedVersion() : 0L;
+
+        if (since < compacted || since > latest) {
+            return new ListChanges(list.getId(), since, latest, true, false, null, null, null);
+        }
+
+        // Only versions below the oldest write still in progress are complete
+        long current = committedVersion(list, latest);
+        if (since >= current) {
+            return new ListChanges(list.getId(), since, since, false, false,
+                java.util.List.of(), java.util.List.of(), java.util.List.of());
+        }
+
+        Query changedQuery = Query.query(Criteria.where("listId").is(list.getId()).and("version").gt(since).lte(current))
+            .with(Sort.by("version", "_id"))
+            .limit(limit + 1);
+        java.util.List<ListItemRecord> changed = mongoTemplate.find(changedQuery, ListItemRecord.class);
+
+        // On overflow stop before the first version that did not fit, so no version is split across calls
+        long upTo = current;
+        boolean hasMore = changed.size() > limit;
+        if (hasMore) {
+            upTo = changed.get(limit).getVersion() - 1;
+            if (upTo <= since) {
+                // A single version holds more items than one response may carry
+                return new ListChanges(list.getId(), since, current, true, false, null, null, null);
+            }
+            long boundary = upTo;
+            changed = changed.stream().filter(item -> item.getVersion() <= boundary).toList();
+        }
+
+        java.util.List<List.ListItem> added = new ArrayList<>();
+        java.util.List<List.ListItem> updated = new ArrayList<>();
+        for (ListItemRecord item : changed) {
+            boolean isNew = item.getCreatedVersion() != null && item.getCreatedVersion() > since;
+            (isNew ? added : updated).add(item.toListItem());
+        }
+
+        Query removedQuery = Query.query(Criteria.where("listId").is(list.getId()).and("version").gt(since).lte(upTo));
+        removedQuery.fields().include("itemId");
+        java.util.List<String> removed = mongoTemplate.find(removedQuery, ListItemTombstone.class).stream()
+            .map(ListItemTombstone::getItemId)
+            .toList();
+
+        return new ListChanges(list.getId(), since, upTo, false, hasMore, added, updated, removed);
+    }
+
+    private long committedVersion(List list, long latest) {
+        if (list.getPendingVersions() == null) return latest;
+        LocalDateTime abandoned = LocalDateTime.now().minus(pendingTimeout);
+        return list.getPendingVersions().stream()
+            .filter(pending -> pending.getVersion() != null && pending.getStartedAt() != null
+                && pending.getStartedAt().isAfter(abandoned))
+            .mapToLong(pending -> pending.getVersion() - 1)
+            .min()
+            .orElse(latest);
+    }
+
+    /**
+     * Drop tombstones past the retention window and record per list up to which version history is gone.
+     * Versions left pending by writes that never completed are released, and clients behind them resync.
+     */
+    @Scheduled(fixedDelayString = "${lists.changes.compaction-interval:3600000}")
+    public void compact() {
+        releaseAbandonedVersions();
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+        Query expired = Query.query(Criteria.where("removedAt").lt(cutoff));
+        expired.fields().include("listId", "version");
+
+        Map<String, Long> compactedVersions = new HashMap<>();
+        try (CloseableIterator<ListItemTombstone> tombstones = mongoTemplate.stream(expired, ListItemTombstone.class)) {
+            tombstones.forEachRemaining(tombstone ->
+                compactedVersions.merge(tombstone.getListId(), tombstone.getVersion(), Math::max));
+        }
+        if (compactedVersions.isEmpty()) return;
+
+        // Raise compactedVersion before deleting, so no client is handed an incomplete delta
+        compactedVersions.forEach((listId, version) -> mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(listId)), new Update().max("compactedVersion", version), List.class));
+        long deleted = mongoTemplate.remove(Query.query(Criteria.where("listId").in(compactedVersions.keySet())
+            .and("removedAt").lt(cutoff)), ListItemTombstone.class).getDeletedCount();
+
+        log.info("Compacted {} list item tombstones across {} lists", deleted, compactedVersions.size());
+    }
+
+    private void releaseAbandonedVersions() {
+        LocalDateTime abandoned = LocalDateTime.now().minus(pendingTimeout);
+        Query stale = Query.query(Criteria.where("pendingVersions.startedAt").lt(abandoned));
+        stale.fields().include("pendingVersions");
+
+        for (List list : mongoTemplate.find(stale, List.class)) {
+            long version = list.getPendingVersions().stream()
+                .filter(pending -> pending.getStartedAt() != null && pending.getStartedAt().isBefore(abandoned))
+                .mapToLong(List.PendingVersion::getVersion)
+                .max()
+                .orElse(0L);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(list.getId())),
+                new Update()
+                    .max("compactedVersion", version)
+                    .pull("pendingVersions", Query.query(Criteria.where("startedAt").lt(abandoned))),
+                List.class);
+            log.warn("Released abandoned pending versions up to {} of list {}", version, list.getId());
+        }
+    }
+
+    public void deleteList(String listId) {
+        mongoTemplate.remove(Query.query(Criteria.where("listId").is(listId)), ListItemTombstone.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.affluo.service;
+
+import com.affluo.model.List;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts list item values to the storage type of their declared ListField, so that range filters
+ * and sorting compare numbers numerically. Dates stay ISO-8601 strings, which order correctly as text.
+ */
+public final class ListFieldTypes {
+
+    private ListFieldTypes() {
+    }
+
+    /**
+     * Get the declared fields of a list keyed by name
+     */
+    public static Map<String, List.ListField> byName(List list) {
+        Map<String, List.ListField> fields = new HashMap<>();
+        if (list.getFields() != null) {
+            list.getFields().forEach(field -> fields.put(field.getName(), field));
+        }
+        return fields;
+    }
+
+    /**
+     * Copy item data with number fields converted to Long or Double where they parse
+     */
+    public static Map<String, Object> coerce(Map<String, List.ListField> fields, Map<String, Object> data) {
+        if (data == null) return null;
+        Map<String, Object> coerced = new LinkedHashMap<>(data);
+        coerced.replaceAll((name, value) -> toFieldType(fields.get(name), value));
+        return coerced;
+    }
+
+    /**
+     * Convert a stored value after its field's type changed: as toFieldType for number fields,
+     * and numbers back to their plain text form for every other type
+     */
+    public static Object retype(List.ListField field, Object value) {
+        if (field != null && !"number".equals(field.getType()) && value instanceof Number number) {
+            return number instanceof Double || number instanceof Float
+                ? BigDecimal.valueOf(number.doubleValue()).stripTrailingZeros().toPlainString()
+                : number.toString();
+        }
+        return toFieldType(field, value);
+    }
+
+    /**
+     * Convert a single value to the storage type of the field, leaving it unchanged if it does not parse
+     */
+    public static Object toFieldType(List.ListField field, Object value) {
+        if (field == null || value == null || !"number".equals(field.getType()) || value instanceof Number) {
+            return value;
+        }
+        try {
+            BigDecimal number = new BigDecimal(value.toString().trim());
+            return number.stripTrailingZeros().scale() <= 0 ? (Object) number.longValueExact() : (Object) number.doubleValue();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.affluo.service;
+
+import com.affluo.dto.ListImportStatus;
+import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Streaming NDJSON/CSV import and export of list items.
+ *
+ * Imports read the request body line by line and append rows to list_items in chunked inserts with
+ * one timestamp per chunk, so memory is bounded by the chunk size regardless of the upload size.
+ * Exports write rows straight from a Mongo cursor.
+ */
+@Service
+@Slf4j
+public class ListImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ListService listService;
+    private final ListValueIndex listValueIndex;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectReader rowReader;
+    private final ObjectWriter rowWriter;
+    private final Cache<String, ListImportStatus> jobs; // keyed by jobKey, so client job IDs only resolve within their list
+
+    @Value("${lists.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public ListImportService(ListService listService,
+                             ListValueIndex listValueIndex,
+                             MongoTemplate mongoTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${lists.import.status-retention:1h}") Duration statusRetention) {
+        this.listService = listService;
+        this.listValueIndex = listValueIndex;
+        this.mongoTemplate = mongoTemplate;
+        this.rowReader = objectMapper.readerForMapOf(Object.class);
+        this.rowWriter = objectMapper.writer();
+        this.jobs = Caffeine.newBuilder()
+            .expireAfterWrite(statusRetention)
+            .build();
+    }
+
+    /**
+     * Append the rows of an NDJSON or CSV stream to a list
+     *
+     * @param jobId optional client-chosen ID under which progress can be polled while the import runs
+     */
+    public ListImportStatus importItems(String companyId, String listId, InputStream inputStream,
+                                        boolean csv, String jobId) throws IOException {
+        List list = listService.getListById(companyId, listId)
+            .orElseThrow(() -> new IllegalArgumentException("List not found"));
+        Map<String, List.ListField> fields = ListFieldTypes.byName(list);
+
+        ListImportStatus status = new ListImportStatus();
+        status.setJobId(jobId != null ? jobId : UUID.randomUUID().toString());
+        status.setListId(listId);
+        status.setStatus("RUNNING");
+        status.setStartedAt(LocalDateTime.now());
+        jobs.put(jobKey(companyId, listId, status.getJobId()), status);
+        log.info("Importing items into list {} for company: {} (job {})", listId, companyId, status.getJobId());
+
+        java.util.List<Map<String, Object>> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            java.util.List<String> header = csv ? readHeader(lines) : null;
+
+            while (true) {
+                Map<String, Object> row;
+                if (csv) {
+                    // Quoted values may hold line breaks, so CSV is read record by record rather than line by line
+                    java.util.List<String> record = readCsvRecord(lines);
+                    if (record == null) break;
+                    if (record.size() == 1 && record.get(0).isBlank()) continue;
+                    status.setRowsRead(status.getRowsRead() + 1);
+                    row = parseCsvRow(header, record, status);
+                } else {
+                    String line = lines.readLine();
+                    if (line == null) break;
+                    if (line.isBlank()) continue;
+                    status.setRowsRead(status.getRowsRead() + 1);
+                    row = parseJsonRow(line, status);
+                }
+                if (row == null) continue;
+
+                chunk.add(ListFieldTypes.coerce(fields, row));
+                if (chunk.size() == chunkSize) {
+                    insertChunk(list, chunk, status);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                insertChunk(list, chunk, status);
+            }
+            status.setStatus("COMPLETED");
+        } catch (IOException | RuntimeException e) {
+            status.setStatus("FAILED");
+            status.getErrors().add("Import aborted: " + e.getMessage());
+            throw e;
+        } finally {
+            status.setFinishedAt(LocalDateTime.now());
+            if (status.getRowsImported() > 0) {
+                listService.itemsAppended(companyId, listId);
+            }
+            log.info("Import {} into list {} finished: {} imported, {} rejected",
+                status.getJobId(), listId, status.getRowsImported(), status.getRowsRejected());
+        }
+
+        return status;
+    }
+
+    public Optional<ListImportStatus> getImportStatus(String companyId, String listId, String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobKey(companyId, listId, jobId)));
+    }
+
+    private static String jobKey(String companyId, String listId, String jobId) {
+        return companyId + ":" + listId + ":" + jobId;
+    }
+
+    /**
+     * Write all items of a list to the output stream as NDJSON or CSV, reading them through a cursor
+     */
+    public void exportItems(String companyId, String listId, OutputStream outputStream, boolean csv) throws IOException {
+        List list = listService.getListById(companyId, listId)
+            .orElseThrow(() -> new IllegalArgumentException("List not found"));
+        java.util.List<String> columns = list.getFields() == null ? java.util.List.of() : list.getFields().stream()
+            .sorted(Comparator.comparing(List.ListField::getOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(List.ListField::getName)
+            .toList();
+
+        Query query = Query.query(Criteria.where("listId").is(listId)).with(Sort.by("_id"));
+        query.fields().include("data");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (csv) {
+            writeCsvRow(writer, columns);
+        }
+
+        long exported = 0;
+        try (CloseableIterator<ListItemRecord> items = mongoTemplate.stream(query, ListItemRecord.class)) {
+            while (items.hasNext()) {
+                Map<String, Object> data = items.next().getData();
+                if (csv) {
+                    writeCsvRow(writer, columns.stream()
+                        .map(column -> data != null && data.get(column) != null ? data.get(column).toString() : "")
+                        .toList());
+                } else {
+                    writer.write(rowWriter.writeValueAsString(data != null ? data : Map.of()));
+                    writer.write('\n');
+                }
+                exported++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} items of list {}", exported, listId);
+    }
+
+    private void insertChunk(List list, java.util.List<Map<String, Object>> rows, ListImportStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        long version = listService.reserveAppend(list.getId());
+        java.util.List<ListItemRecord> records = new ArrayList<>(rows.size());
+        for (Map<String, Object> data : rows) {
+            records.add(new ListItemRecord(new ObjectId().toHexString(), list.getId(), list.getCompanyId(), data, now, now,
+                version, version));
+        }
+
+        long appended = 0;
+        try {
+            mongoTemplate.insert(records, ListItemRecord.class);
+            appended = records.size();
+            listValueIndex.addedAll(list.getId(), ListValueIndex.count(rows));
+        } finally {
+            listService.completeAppend(list.getId(), version, appended);
+        }
+        status.setRowsImported(status.getRowsImported() + records.size());
+    }
+
+    private Map<String, Object> parseJsonRow(String line, ListImportStatus status) {
+        try {
+            return rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(status, "Row " + status.getRowsRead() + ": malformed JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            reject(status, "Row " + status.getRowsRead() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private java.util.List<String> readHeader(BufferedReader lines) throws IOException {
+        java.util.List<String> header = readCsvRecord(lines);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import is empty");
+        }
+        if (header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        return header;
+    }
+
+    private Map<String, Object> parseCsvRow(java.util.List<String> header, java.util.List<String> values, ListImportStatus status) {
+        if (values.size() != header.size()) {
+            reject(status, "Row " + status.getRowsRead() + ": expected " + header.size() + " columns, found " + values.size());
+            return null;
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                row.put(header.get(i), values.get(i));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Read one CSV record, honouring double-quoted values with "" escapes and line breaks inside quotes.
+     * Records end at an unquoted LF or CRLF.
+     *
+     * @return the record's values, or null at the end of the input
+     */
+    private static java.util.List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        java.util.List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        current.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    current.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                current.append((char) c);
+            }
+        }
+        if (!read) return null;
+
+        values.add(current.toString());
+        return values;
+    }
+
+    private static void writeCsvRow(Writer writer, java.util.List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            String value = values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static void reject(ListImportStatus status, String error) {
+        status.setRowsRejected(status.getRowsRejected() + 1);
+        if (status.getErrors().size() < MAX_REPORTED_ERRORS) {
+            status.getErrors().add(error);
+        }
+    }
+}
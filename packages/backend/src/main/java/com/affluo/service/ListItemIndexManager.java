@@ -0,0 +1,103 @@
+package com.affluo.service;
+
+import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {listId, data.<field>, _id} indexes on list_items for the fields lists declare, so that
+ * filtered, sorted and keyset-paged item queries are index scans within one list.
+ *
+ * Indexes are shared by every list declaring a field of the same name. Mongo allows 64 indexes per
+ * collection, so once lists.query.max-field-indexes is reached further fields are not indexed and
+ * queries on them scan the list's items through the listId index. There is deliberately no wildcard
+ * index on data, which would add an index entry per item field on every write.
+ */
+@Component
+@Slf4j
+public class ListItemIndexManager {
+
+    private static final String INDEX_PREFIX = "list_field_";
+
+    private final MongoTemplate mongoTemplate;
+    private final Set<String> indexedFields = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    @Value("${lists.query.max-field-indexes:48}")
+    private int maxFieldIndexes;
+
+    public ListItemIndexManager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Ensure an index exists for every declared field of the list, within the index budget
+     */
+    public void ensureIndexes(List list) {
+        if (list.getFields() == null) return;
+        loadExisting();
+
+        IndexOperations indexOps = mongoTemplate.indexOps(ListItemRecord.class);
+        for (List.ListField field : list.getFields()) {
+            String name = field.getName();
+            if (name == null || name.isEmpty() || name.contains(".") || name.startsWith("$")) continue;
+            if (indexedFields.contains(name)) continue;
+
+            synchronized (this) {
+                if (indexedFields.contains(name)) continue;
+                if (indexedFields.size() >= maxFieldIndexes) {
+                    log.warn("List field index budget of {} reached, field '{}' of list {} is not indexed",
+                        maxFieldIndexes, name, list.getId());
+                    return;
+                }
+                try {
+                    indexOps.ensureIndex(new Index()
+                        .on("listId", Sort.Direction.ASC)
+                        .on("data." + name, Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named(indexName(name))
+                        .background());
+                    indexedFields.add(name);
+                    log.info("Created list_items index for field '{}'", name);
+                } catch (DataAccessException e) {
+                    log.warn("Failed to create list_items index for field '{}': {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void loadExisting() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            IndexOperations indexOps = mongoTemplate.indexOps(ListItemRecord.class);
+            for (IndexInfo index : indexOps.getIndexInfo()) {
+                if (index.isWildcard()) {
+                    // Left over from when data carried a wildcard index
+                    indexOps.dropIndex(index.getName());
+                    log.info("Dropped list_items wildcard index '{}'", index.getName());
+                } else if (index.getName().startsWith(INDEX_PREFIX) && index.getIndexFields().size() > 1) {
+                    indexedFields.add(index.getIndexFields().get(1).getKey().substring("data.".length()));
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private static String indexName(String fieldName) {
+        return INDEX_PREFIX + DigestUtils.md5DigestAsHex(fieldName.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+    }
+}
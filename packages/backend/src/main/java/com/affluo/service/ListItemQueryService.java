@@ -0,0 +1,164 @@
+package com.affluo.service;
+
+import com.affluo.dto.ListItemPage;
+import com.affluo.dto.ListItemQuery;
+import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import com.affluo.util.MongoRegex;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Server-side filtering, sorting and keyset paging of list items.
+ *
+ * Filters and the sort key must be declared fields of the list. Each page is one index range scan on
+ * {listId, data.<field>, _id}; the cursor carries the last (value, id) pair so later pages never skip.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListItemQueryService {
+
+    private static final Set<String> RANGE_TYPES = Set.of("number", "date");
+
+    private final ListService listService;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ListItemPage query(String companyId, String listId, ListItemQuery request, int size) {
+        List list = listService.getListById(companyId, listId)
+            .orElseThrow(() -> new IllegalArgumentException("List not found"));
+        Map<String, List.ListField> fields = ListFieldTypes.byName(list);
+
+        java.util.List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("listId").is(listId));
+        if (request.getFilters() != null) {
+            for (ListItemQuery.Filter filter : request.getFilters()) {
+                criteria.add(toCriteria(declared(fields, filter.getField()), filter));
+            }
+        }
+
+        boolean descending = "DESC".equalsIgnoreCase(request.getSortDirection());
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String sortPath = request.getSortField() != null ? "data." + declared(fields, request.getSortField()).getName() : null;
+
+        if (sortPath != null) {
+            // Items without the sort field cannot be positioned by the cursor and are left out
+            criteria.add(Criteria.where(sortPath).exists(true).ne(null));
+        }
+        if (request.getCursor() != null) {
+            criteria.add(afterCursor(sortPath, decodeCursor(request.getCursor()), descending));
+        }
+
+        Query query = Query.query(new Criteria().andOperator(criteria.toArray(new Criteria[0])))
+            .with(sortPath != null ? Sort.by(direction, sortPath, "_id") : Sort.by(direction, "_id"))
+            .limit(size);
+
+        java.util.List<ListItemRecord> records = mongoTemplate.find(query, ListItemRecord.class);
+        String nextCursor = null;
+        if (records.size() == size) {
+            ListItemRecord last = records.get(records.size() - 1);
+            Object lastValue = sortPath != null ? last.getData().get(request.getSortField()) : null;
+            nextCursor = encodeCursor(lastValue, last.getId());
+        }
+
+        log.debug("List {} query returned {} items", listId, records.size());
+        return new ListItemPage(records.stream().map(ListItemRecord::toListItem).toList(), nextCursor, null);
+    }
+
+    /**
+     * Distinct values of a field starting with the given text (case-insensitive), served from the value index
+     */
+    public java.util.List<String> typeahead(String companyId, String listId, String fieldName, String prefix, int limit) {
+        String needle = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT);
+        return listService.getListFieldValues(companyId, listId, fieldName).stream()
+            .filter(value -> value.toLowerCase(Locale.ROOT).startsWith(needle))
+            .limit(limit)
+            .toList();
+    }
+
+    private Criteria toCriteria(List.ListField field, ListItemQuery.Filter filter) {
+        String path = "data." + field.getName();
+        String op = filter.getOp() != null ? filter.getOp().toLowerCase(Locale.ROOT) : "eq";
+
+        return switch (op) {
+            case "eq" -> Criteria.where(path).is(ListFieldTypes.toFieldType(field, filter.getValue()));
+            case "prefix" -> {
+                if (filter.getValue() == null) {
+                    throw new IllegalArgumentException("Prefix filter on " + field.getName() + " needs a value");
+                }
+                // Anchored, case-sensitive prefixes with escaped metacharacters are bounded index scans
+                yield Criteria.where(path).regex(MongoRegex.prefix(filter.getValue().toString()));
+            }
+            case "range" -> {
+                if (!RANGE_TYPES.contains(field.getType())) {
+                    throw new IllegalArgumentException("Range filter is only supported on number and date fields");
+                }
+                Criteria range = Criteria.where(path);
+                if (filter.getFrom() != null) range = range.gte(ListFieldTypes.toFieldType(field, filter.getFrom()));
+                if (filter.getTo() != null) range = range.lte(ListFieldTypes.toFieldType(field, filter.getTo()));
+                yield range;
+            }
+            default -> throw new IllegalArgumentException("Unsupported filter operation: " + filter.getOp());
+        };
+    }
+
+    private static Criteria afterCursor(String sortPath, Object[] cursor, boolean descending) {
+        Object value = cursor[0];
+        String id = (String) cursor[1];
+        if (sortPath == null) {
+            return descending ? Criteria.where("_id").lt(id) : Criteria.where("_id").gt(id);
+        }
+        return new Criteria().orOperator(
+            descending ? Criteria.where(sortPath).lt(value) : Criteria.where(sortPath).gt(value),
+            new Criteria().andOperator(
+                Criteria.where(sortPath).is(value),
+                descending ? Criteria.where("_id").lt(id) : Criteria.where("_id").gt(id)));
+    }
+
+    private static List.ListField declared(Map<String, List.ListField> fields, String name) {
+        List.ListField field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown list field: " + name);
+        }
+        return field;
+    }
+
+    private String encodeCursor(Object value, String id) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(objectMapper.writeValueAsBytes(Arrays.asList(value, id)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            java.util.List<Object> parts = objectMapper.readValue(
+                new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), new TypeReference<>() {});
+            if (parts.size() != 2 || !(parts.get(1) instanceof String)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts.toArray();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
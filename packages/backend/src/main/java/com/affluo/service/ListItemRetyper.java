@@ -0,0 +1,101 @@
+package com.affluo.service;
+
+import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Rewrites stored item values of a list to the storage type of their declared fields, for items written
+ * before the field was declared with that type. Only items holding a value of the wrong type are read.
+ */
+@Service
+@Slf4j
+public class ListItemRetyper {
+
+    private final MongoTemplate mongoTemplate;
+    private final ListValueIndex listValueIndex;
+
+    @Value("${lists.items.migration-batch-size:1000}")
+    private int batchSize;
+
+    public ListItemRetyper(MongoTemplate mongoTemplate, ListValueIndex listValueIndex) {
+        this.mongoTemplate = mongoTemplate;
+        this.listValueIndex = listValueIndex;
+    }
+
+    /**
+     * Convert the values of the given fields of every item of the list
+     *
+     * @param version list version to stamp on changed items so delta sync picks them up, or null to leave it
+     * @return the number of items changed
+     */
+    public long retype(List list, Collection<String> fieldNames, Long version) {
+        Map<String, List.ListField> fields = ListFieldTypes.byName(list);
+        java.util.List<List.ListField> retyped = fieldNames.stream().map(fields::get).filter(Objects::nonNull).toList();
+        if (retyped.isEmpty()) return 0;
+
+        // Numbers are stored as numbers in number fields and as text everywhere else
+        Query query = Query.query(Criteria.where("listId").is(list.getId()).orOperator(retyped.stream()
+            .map(field -> Criteria.where("data." + field.getName()).type("number".equals(field.getType()) ? Type.stringType() : Type.numberType()))
+            .toArray(Criteria[]::new)));
+        retyped.forEach(field -> query.fields().include("data." + field.getName()));
+
+        long changed = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        LocalDateTime now = LocalDateTime.now();
+        try (CloseableIterator<ListItemRecord> items = mongoTemplate.stream(query, ListItemRecord.class)) {
+            while (items.hasNext()) {
+                ListItemRecord item = items.next();
+                Update update = new Update();
+                for (List.ListField field : retyped) {
+                    Object value = item.getData().get(field.getName());
+                    Object stored = ListFieldTypes.retype(field, value);
+                    if (!Objects.equals(value, stored)) {
+                        update.set("data." + field.getName(), stored);
+                    }
+                }
+                if (update.getUpdateObject().isEmpty()) continue;
+                update.set("updatedAt", now);
+                if (version != null) {
+                    update.set("version", version);
+                }
+
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ListItemRecord.class);
+                }
+                bulk.updateOne(Query.query(Criteria.where("_id").is(item.getId())), update);
+                changed++;
+                if (++pending == batchSize) {
+                    bulk.execute();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+
+        if (changed > 0) {
+            // Indexed values are the text form of stored values, which retyping can change (e.g. "5.0" to 5)
+            listValueIndex.invalidate(list.getId(), fieldNames);
+            log.info("Retyped {} items of list {}", changed, list.getId());
+        }
+        return changed;
+    }
+}
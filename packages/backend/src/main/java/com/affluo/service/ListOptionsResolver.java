@@ -0,0 +1,156 @@
+package com.affluo.service;
+
+import com.affluo.model.Form;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the option values of list-backed form fields.
+ *
+ * Resolved values are cached per (listId, field, list updatedAt). A lookup first reads only the
+ * updatedAt of the referenced lists; cache misses are served from the ListValueIndex, so resolving a
+ * dropdown costs O(distinct values) rather than a scan over the list's items.
+ */
+@Component
+@Slf4j
+public class ListOptionsResolver {
+
+    private final MongoTemplate mongoTemplate;
+    private final ListValueIndex listValueIndex;
+    private final Cache<OptionsKey, List<String>> options;
+
+    public ListOptionsResolver(MongoTemplate mongoTemplate,
+                               ListValueIndex listValueIndex,
+                               @Value("${forms.options.cache-max-values:1000000}") long maximumValues) {
+        this.mongoTemplate = mongoTemplate;
+        this.listValueIndex = listValueIndex;
+        this.options = Caffeine.newBuilder()
+            .maximumWeight(maximumValues)
+            .<OptionsKey, List<String>>weigher((key, values) -> values.size() + 1)
+            .build();
+    }
+
+    /**
+     * Resolve the option values of every list-backed field of a form, keyed by field ID.
+     * Fields whose list does not exist are left out.
+     */
+    public Map<String, List<String>> resolve(Form form) {
+        Map<String, Form.DataSource> sources = new HashMap<>();
+        if (form.getFields() != null) {
+            for (Form.FormField field : form.getFields()) {
+                Form.DataSource dataSource = field.getDataSource();
+                if (field.getId() != null && dataSource != null && "list".equals(dataSource.getType())
+                        && dataSource.getListId() != null) {
+                    sources.put(field.getId(), dataSource);
+                }
+            }
+        }
+        if (sources.isEmpty()) return Map.of();
+
+        Map<ListField, List<String>> values = resolve(form.getCompanyId(),
+            sources.values().stream().map(source -> new ListField(source.getListId(), source.getListField())).toList());
+
+        Map<String, List<String>> byField = new HashMap<>();
+        sources.forEach((fieldId, source) -> {
+            List<String> fieldValues = values.get(new ListField(source.getListId(), source.getListField()));
+            if (fieldValues != null) {
+                byField.put(fieldId, fieldValues);
+            }
+        });
+        return byField;
+    }
+
+    /**
+     * Resolve the distinct values of one field of a list
+     *
+     * @throws IllegalArgumentException when the list does not exist in the company
+     */
+    public List<String> resolve(String companyId, String listId, String fieldName) {
+        List<String> values = resolve(companyId, List.of(new ListField(listId, fieldName))).get(new ListField(listId, fieldName));
+        if (values == null) {
+            throw new IllegalArgumentException("List not found");
+        }
+        return values;
+    }
+
+    /**
+     * Get the current version of each referenced list, then fill cache misses with one batched load
+     */
+    private Map<ListField, List<String>> resolve(String companyId, Collection<ListField> requested) {
+        Set<String> listIds = new HashSet<>();
+        requested.forEach(ref -> listIds.add(ref.listId()));
+        Map<String, LocalDateTime> versions = loadVersions(companyId, listIds);
+
+        Map<ListField, List<String>> resolved = new HashMap<>();
+        Set<ListField> misses = new LinkedHashSet<>();
+        for (ListField ref : requested) {
+            if (!versions.containsKey(ref.listId())) continue;
+            List<String> cached = options.getIfPresent(new OptionsKey(ref, versions.get(ref.listId())));
+            if (cached != null) {
+                resolved.put(ref, cached);
+            } else {
+                misses.add(ref);
+            }
+        }
+        if (misses.isEmpty()) return resolved;
+
+        Map<String, Set<String>> missingFields = new HashMap<>();
+        misses.forEach(ref -> missingFields.computeIfAbsent(ref.listId(), id -> new LinkedHashSet<>()).add(ref.field()));
+        log.debug("Loading value index of {} lists to resolve {} option sets", missingFields.size(), misses.size());
+
+        missingFields.forEach((listId, fields) -> {
+            Map<String, List<String>> values = new HashMap<>(listValueIndex.getValues(listId, fields));
+            Set<String> unindexed = new LinkedHashSet<>(fields);
+            unindexed.removeAll(values.keySet());
+            if (!unindexed.isEmpty()) {
+                values.putAll(listValueIndex.rebuild(companyId, listId, unindexed));
+            }
+
+            values.forEach((field, fieldValues) -> {
+                ListField ref = new ListField(listId, field);
+                options.put(new OptionsKey(ref, versions.get(listId)), fieldValues);
+                resolved.put(ref, fieldValues);
+            });
+        });
+        return resolved;
+    }
+
+    /**
+     * Get the updatedAt of each existing list among the given IDs, reading only that field
+     */
+    public Map<String, LocalDateTime> getListVersions(String companyId, Collection<String> listIds) {
+        if (listIds.isEmpty()) return Map.of();
+        return loadVersions(companyId, listIds);
+    }
+
+    private Map<String, LocalDateTime> loadVersions(String companyId, Collection<String> listIds) {
+        Query query = Query.query(Criteria.where("_id").in(listIds).and("companyId").is(companyId));
+        query.fields().include("updatedAt");
+
+        Map<String, LocalDateTime> versions = new HashMap<>();
+        mongoTemplate.find(query, com.affluo.model.List.class)
+            .forEach(list -> versions.put(list.getId(), list.getUpdatedAt()));
+        return versions;
+    }
+
+    private record ListField(String listId, String field) {
+    }
+
+    private record OptionsKey(ListField source, LocalDateTime listVersion) {
+    }
+}
@@ -2,17 +2,34 @@ package com.affluo.service;
 
 import com.affluo.dto.AddListItemRequest;
 import com.affluo.dto.CreateListRequest;
+import com.affluo.dto.ListChanges;
+import com.affluo.dto.ListItemPage;
+import com.affluo.dto.ListSummary;
 import com.affluo.dto.UpdateListRequest;
+import com.affluo.event.ListChangedEvent;
 import com.affluo.model.List;
+import com.affluo.model.ListItemRecord;
+import com.affluo.repository.mongo.ListItemRepository;
 import com.affluo.repository.mongo.ListRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -21,18 +38,72 @@ import java.util.UUID;
 public class ListService {
     
     private final ListRepository listRepository;
+    private final ListItemRepository listItemRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ListValueIndex listValueIndex;
+    private final ListItemIndexManager listItemIndexManager;
+    private final ListChangeLog listChangeLog;
+    private final ListItemRetyper listItemRetyper;
+    private final ListOptionsResolver listOptionsResolver;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<List> getListsByCompany(String companyId) {
         log.info("Fetching lists for company: {}", companyId);
         return listRepository.findByCompanyId(companyId);
     }
     
+    /**
+     * Get id, name, counts and timestamps of every list without reading fields or items
+     */
+    public List<ListSummary> getListSummaries(String companyId) {
+        log.info("Fetching list summaries for company: {}", companyId);
+        return listRepository.findSummariesByCompanyId(companyId);
+    }
+    
     public Optional<List> getListById(String companyId, String listId) {
         log.info("Fetching list {} for company: {}", listId, companyId);
         Optional<List> list = listRepository.findById(listId);
         return list.filter(l -> l.getCompanyId().equals(companyId));
     }
     
+    /**
+     * Get a list with all of its items loaded from list_items.
+     * Prefer getListItems for large lists.
+     */
+    public Optional<List> getListWithItems(String companyId, String listId) {
+        Optional<List> list = getListById(companyId, listId);
+        list.filter(l -> l.getItems() == null || l.getItems().isEmpty())
+            .ifPresent(l -> l.setItems(listItemRepository.findByListIdOrderByIdAsc(listId).stream()
+                .map(ListItemRecord::toListItem)
+                .toList()));
+        return list;
+    }
+    
+    /**
+     * Get one page of a list's items in ID order, starting after the given item ID
+     */
+    public ListItemPage getListItems(String companyId, String listId, String afterId, int size) {
+        List list = getListById(companyId, listId)
+            .orElseThrow(() -> new IllegalArgumentException("List not found"));
+        
+        PageRequest page = PageRequest.of(0, size);
+        List<ListItemRecord> records = afterId == null
+            ? listItemRepository.findByListIdOrderByIdAsc(listId, page)
+            : listItemRepository.findByListIdAndIdGreaterThanOrderByIdAsc(listId, afterId, page);
+        
+        String nextCursor = records.size() == size ? records.get(records.size() - 1).getId() : null;
+        return new ListItemPage(records.stream().map(ListItemRecord::toListItem).toList(), nextCursor, list.getItemCount());
+    }
+    
+    /**
+     * Get the item changes of a list since the given version
+     */
+    public ListChanges getListChanges(String companyId, String listId, long since, int limit) {
+        List list = getListById(companyId, listId)
+            .orElseThrow(() -> new IllegalArgumentException("List not found"));
+        return listChangeLog.getChanges(list, since, limit);
+    }
+    
     public List createList(String companyId, CreateListRequest request) {
         log.info("Creating new list '{}' for company: {}", request.getName(), companyId);
         
@@ -48,6 +119,8 @@ public class ListService {
         list.setDescription(request.getDescription());
         list.setCreatedAt(LocalDateTime.now());
         list.setUpdatedAt(LocalDateTime.now());
+        list.setVersion(1L);
+        list.setCompactedVersion(0L);
         
         // Convert DTO fields to model fields
         if (request.getFields() != null) {
@@ -56,14 +129,21 @@ public class ListService {
                 .toList());
         }
         
-        // Convert DTO items to model items
-        if (request.getItems() != null) {
-            list.setItems(request.getItems().stream()
-                .map(this::convertToModelItem)
-                .toList());
-        }
+        // Convert DTO items to rows of list_items
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List.ListField> fields = ListFieldTypes.byName(list);
+        List<ListItemRecord> records = request.getItems() != null
+            ? request.getItems().stream().map(data -> convertToRecord(list, fields, data, now, 1L)).toList()
+            : List.of();
+        list.setItemCount((long) records.size());
         
-        return listRepository.save(list);
+        List saved = listRepository.save(list);
+        if (!records.isEmpty()) {
+            listItemRepository.insert(records);
+        }
+        listValueIndex.create(companyId, list.getId(), ListValueIndex.count(records.stream().map(ListItemRecord::getData).toList()));
+        listItemIndexManager.ensureIndexes(saved);
+        return saved;
     }
     
     public List updateList(String companyId, String listId, UpdateListRequest request) {
@@ -82,25 +162,67 @@ public class ListService {
             throw new IllegalArgumentException("List with name '" + request.getName() + "' already exists");
         }
         
-        list.setName(request.getName());
-        list.setDescription(request.getDescription());
-        list.setUpdatedAt(LocalDateTime.now());
+        // Claim the next list version first so the items written below carry it; it stays pending until they are in
+        long version = listChangeLog.begin(listId);
+        List saved;
+        try {
+            saved = applyUpdate(listId, list, request, version);
+        } finally {
+            listChangeLog.complete(listId, version, 0);
+        }
+        eventPublisher.publishEvent(new ListChangedEvent(companyId, listId));
+        return saved;
+    }
+    
+    private List applyUpdate(String listId, List list, UpdateListRequest request, long version) {
+        Update update = new Update()
+            .set("name", request.getName())
+            .set("description", request.getDescription())
+            .set("updatedAt", LocalDateTime.now());
         
-        // Update fields
+        // Update fields, noting those whose type changed so existing items can be converted
+        Set<String> retypedFields = new HashSet<>();
         if (request.getFields() != null) {
+            Map<String, List.ListField> previousFields = ListFieldTypes.byName(list);
+            request.getFields().forEach(field -> {
+                List.ListField previous = previousFields.get(field.getName());
+                if (!Objects.equals(previous != null ? previous.getType() : null, field.getType())) {
+                    retypedFields.add(field.getName());
+                }
+            });
             list.setFields(request.getFields().stream()
                 .map(this::convertToModelField)
                 .toList());
+            update.set("fields", list.getFields())
+                .set("fieldCount", list.getFieldCount())
+                .set("requiredFieldCount", list.getRequiredFieldCount());
         }
         
-        // Update items
+        // Replace items
         if (request.getItems() != null) {
-            list.setItems(request.getItems().stream()
-                .map(this::convertToModelItem)
-                .toList());
+            LocalDateTime now = LocalDateTime.now();
+            Map<String, List.ListField> fields = ListFieldTypes.byName(list);
+            List<ListItemRecord> records = request.getItems().stream()
+                .map(data -> convertToRecord(list, fields, data, now, version))
+                .toList();
+            Map<String, Map<String, Long>> previousCounts = ListValueIndex.count(
+                listItemRepository.findByListIdOrderByIdAsc(listId).stream().map(ListItemRecord::getData).toList());
+            listItemRepository.deleteByListId(listId);
+            if (!records.isEmpty()) {
+                listItemRepository.insert(records);
+            }
+            listValueIndex.replaced(listId, previousCounts, ListValueIndex.count(records.stream().map(ListItemRecord::getData).toList()));
+            // A full replacement is not tracked item by item: clients behind this version resync
+            update.set("itemCount", (long) records.size()).max("compactedVersion", version);
+        } else if (!retypedFields.isEmpty()) {
+            listItemRetyper.retype(list, retypedFields, version);
         }
         
-        return listRepository.save(list);
+        // Partial update so concurrent item writes keep their itemCount and version increments
+        List saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(listId)), update,
+            FindAndModifyOptions.options().returnNew(true), List.class);
+        listItemIndexManager.ensureIndexes(saved);
+        return saved;
     }
     
     public void deleteList(String companyId, String listId) {
@@ -112,8 +234,15 @@ public class ListService {
         }
         
         listRepository.deleteById(listId);
+        listItemRepository.deleteByListId(listId);
+        listValueIndex.deleteList(listId);
+        listChangeLog.deleteList(listId);
+        eventPublisher.publishEvent(new ListChangedEvent(companyId, listId));
     }
     
+    /**
+     * Add one item as its own document and bump the list's count, without loading the list's rows
+     */
     public List.ListItem addListItem(String companyId, String listId, AddListItemRequest request) {
         log.info("Adding item to list {} for company: {}", listId, companyId);
         
@@ -123,14 +252,25 @@ public class ListService {
         }
         
         List list = listOpt.get();
-        List.ListItem newItem = convertToModelItem(request.getData());
-        list.getItems().add(newItem);
-        list.setUpdatedAt(LocalDateTime.now());
+        long version = listChangeLog.begin(listId);
+        ListItemRecord record;
+        long itemDelta = 0;
+        try {
+            record = listItemRepository.insert(
+                convertToRecord(list, ListFieldTypes.byName(list), request.getData(), LocalDateTime.now(), version));
+            itemDelta = 1;
+            listValueIndex.added(listId, record.getData());
+        } finally {
+            listChangeLog.complete(listId, version, itemDelta);
+        }
         
-        listRepository.save(list);
-        return newItem;
+        eventPublisher.publishEvent(new ListChangedEvent(companyId, listId));
+        return record.toListItem();
     }
     
+    /**
+     * Delete one item document and decrement the list's count
+     */
     public void removeListItem(String companyId, String listId, String itemId) {
         log.info("Removing item {} from list {} for company: {}", itemId, listId, companyId);
         
@@ -139,32 +279,51 @@ public class ListService {
             throw new IllegalArgumentException("List not found");
         }
         
-        List list = listOpt.get();
-        boolean removed = list.getItems().removeIf(item -> item.getId().equals(itemId));
-        
-        if (!removed) {
-            throw new IllegalArgumentException("Item not found");
+        // The tombstone carries a version claimed before the removal, so no client can sync past it unseen
+        long version = listChangeLog.begin(listId);
+        long itemDelta = 0;
+        try {
+            ListItemRecord removed = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(itemId).and("listId").is(listId)), ListItemRecord.class);
+            if (removed == null) {
+                throw new IllegalArgumentException("Item not found");
+            }
+            itemDelta = -1;
+            listValueIndex.removed(listId, removed.getData());
+            listChangeLog.recordRemoval(listId, itemId, version);
+        } finally {
+            listChangeLog.complete(listId, version, itemDelta);
         }
         
-        list.setUpdatedAt(LocalDateTime.now());
-        listRepository.save(list);
+        eventPublisher.publishEvent(new ListChangedEvent(companyId, listId));
+    }
+    
+    /**
+     * Reserve a list version for items about to be appended directly to list_items, e.g. by a bulk import.
+     * Must be followed by completeAppend whether or not the items were written.
+     */
+    public long reserveAppend(String listId) {
+        return listChangeLog.begin(listId);
+    }
+    
+    /**
+     * Release a version reserved with reserveAppend and count the items that were actually appended
+     */
+    public void completeAppend(String listId, long version, long appended) {
+        listChangeLog.complete(listId, version, appended);
+    }
+    
+    /**
+     * Notify listeners once directly appended items are in place
+     */
+    public void itemsAppended(String companyId, String listId) {
+        eventPublisher.publishEvent(new ListChangedEvent(companyId, listId));
     }
     
     public List<String> getListFieldValues(String companyId, String listId, String fieldName) {
         log.info("Getting field values for field '{}' in list {} for company: {}", fieldName, listId, companyId);
         
-        Optional<List> listOpt = getListById(companyId, listId);
-        if (listOpt.isEmpty()) {
-            throw new IllegalArgumentException("List not found");
-        }
-        
-        List list = listOpt.get();
-        return list.getItems().stream()
-            .map(item -> item.getData().get(fieldName))
-            .filter(value -> value != null)
-            .map(Object::toString)
-            .distinct()
-            .toList();
+        return listOptionsResolver.resolve(companyId, listId, fieldName);
     }
     
     private List.ListField convertToModelField(CreateListRequest.ListFieldDto dto) {
@@ -187,12 +346,10 @@ public class ListService {
         return field;
     }
     
-    private List.ListItem convertToModelItem(Map<String, Object> data) {
-        List.ListItem item = new List.ListItem();
-        item.setId(UUID.randomUUID().toString());
-        item.setData(data);
-        item.setCreatedAt(LocalDateTime.now());
-        item.setUpdatedAt(LocalDateTime.now());
-        return item;
+    private ListItemRecord convertToRecord(List list, Map<String, List.ListField> fields, Map<String, Object> data,
+                                           LocalDateTime now, long version) {
+        // ObjectId hex IDs are cheaper than UUIDs and keep ID order close to insertion order
+        return new ListItemRecord(new ObjectId().toHexString(), list.getId(), list.getCompanyId(),
+            ListFieldTypes.coerce(fields, data), now, now, version, version);
     }
 }
@@ -0,0 +1,238 @@
+package com.affluo.service;
+
+import com.affluo.model.ListFieldIndex;
+import com.affluo.model.ListItemRecord;
+import com.affluo.model.ListValueCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Per-list, per-field distinct-value index kept as one item count document per value in list_value_counts.
+ *
+ * A field is indexed once it has a marker in list_field_indexes. Item writes upsert count deltas with
+ * $inc for marked fields only and remove values whose count reaches zero; an unmarked field is rebuilt
+ * from list_items the first time its values are requested, so a partially maintained index is never
+ * served. A rebuild that overlaps an item write is discarded, since its counts may miss that write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListValueIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final ListChangeLog listChangeLog;
+
+    /**
+     * Count the values of each field over the given item data maps
+     */
+    public static Map<String, Map<String, Long>> count(Iterable<Map<String, Object>> rows) {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (Map<String, Object> data : rows) {
+            if (data == null) continue;
+            data.forEach((field, value) -> {
+                if (value != null) {
+                    counts.computeIfAbsent(field, f -> new LinkedHashMap<>()).merge(value.toString(), 1L, Long::sum);
+                }
+            });
+        }
+        return counts;
+    }
+
+    /**
+     * Write the full index of a new list
+     */
+    public void create(String companyId, String listId, Map<String, Map<String, Long>> counts) {
+        if (counts.isEmpty()) return;
+        write(listId, counts);
+    }
+
+    public void added(String listId, Map<String, Object> data) {
+        apply(listId, count(List.of(data)), 1);
+    }
+
+    /**
+     * Apply the value counts of a batch of newly inserted items
+     */
+    public void addedAll(String listId, Map<String, Map<String, Long>> counts) {
+        apply(listId, counts, 1);
+    }
+
+    public void removed(String listId, Map<String, Object> data) {
+        apply(listId, count(List.of(data)), -1);
+    }
+
+    /**
+     * Apply the difference between the counts of a list's previous and new items
+     */
+    public void replaced(String listId, Map<String, Map<String, Long>> previous, Map<String, Map<String, Long>> current) {
+        Map<String, Map<String, Long>> delta = new HashMap<>();
+        current.forEach((field, values) -> values.forEach((value, count) ->
+            delta.computeIfAbsent(field, f -> new HashMap<>()).merge(value, count, Long::sum)));
+        previous.forEach((field, values) -> values.forEach((value, count) ->
+            delta.computeIfAbsent(field, f -> new HashMap<>()).merge(value, -count, Long::sum)));
+        apply(listId, delta, 1);
+    }
+
+    /**
+     * Get the distinct values of the given fields that are indexed, keyed by field
+     */
+    public Map<String, List<String>> getValues(String listId, Collection<String> fields) {
+        Set<String> indexed = indexedFields(listId, fields);
+        if (indexed.isEmpty()) return Map.of();
+
+        Map<String, List<String>> byField = new HashMap<>();
+        indexed.forEach(field -> byField.put(field, new ArrayList<>()));
+        Query query = Query.query(Criteria.where("listId").is(listId).and("field").in(indexed).and("count").gt(0))
+            .with(Sort.by("_id"));
+        query.fields().include("field").include("value");
+        for (ListValueCount document : mongoTemplate.find(query, ListValueCount.class)) {
+            byField.get(document.getField()).add(document.getValue());
+        }
+        return byField;
+    }
+
+    /**
+     * Recount the given fields from list_items with one projected cursor and index them, unless an item
+     * write was in progress or happened meanwhile; the counted values are returned either way
+     */
+    public Map<String, List<String>> rebuild(String companyId, String listId, Collection<String> fields) {
+        ListChangeLog.WriteState before = listChangeLog.writeState(listId);
+
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        fields.forEach(field -> counts.put(field, new LinkedHashMap<>()));
+
+        Query query = Query.query(Criteria.where("listId").is(listId)).with(Sort.by("_id"));
+        fields.forEach(field -> query.fields().include("data." + field));
+
+        try (CloseableIterator<ListItemRecord> items = mongoTemplate.stream(query, ListItemRecord.class)) {
+            items.forEachRemaining(item -> {
+                if (item.getData() == null) return;
+                for (String field : fields) {
+                    Object value = item.getData().get(field);
+                    if (value != null) {
+                        counts.get(field).merge(value.toString(), 1L, Long::sum);
+                    }
+                }
+            });
+        }
+
+        Map<String, List<String>> byField = new HashMap<>();
+        counts.forEach((field, values) -> byField.put(field, List.copyOf(values.keySet())));
+
+        // Counts taken while a write was pending may miss items it has not written yet
+        if (!before.settled()) {
+            log.debug("Not indexing {} fields of list {} while an item write is in progress", fields.size(), listId);
+            return byField;
+        }
+
+        removeFields(listId, fields);
+        write(listId, counts);
+
+        // A write that started during the rebuild may have applied its delta to counts that were then overwritten
+        if (!before.equals(listChangeLog.writeState(listId))) {
+            removeFields(listId, fields);
+            log.debug("Discarded value index of {} fields of list {} after a concurrent item write", fields.size(), listId);
+            return byField;
+        }
+
+        log.info("Rebuilt value index of {} fields for list {}", fields.size(), listId);
+        return byField;
+    }
+
+    /**
+     * Drop the index of the given fields so they are rebuilt from list_items on the next read
+     */
+    public void invalidate(String listId, Collection<String> fields) {
+        removeFields(listId, fields);
+    }
+
+    public void deleteList(String listId) {
+        Query query = Query.query(Criteria.where("listId").is(listId));
+        mongoTemplate.remove(query, ListFieldIndex.class);
+        mongoTemplate.remove(query, ListValueCount.class);
+    }
+
+    private void apply(String listId, Map<String, Map<String, Long>> counts, int sign) {
+        // No upsert for unmarked fields: they have not been indexed yet and are rebuilt on read
+        Set<String> indexed = indexedFields(listId, counts.keySet());
+        if (indexed.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ListValueCount.class);
+        int updates = 0;
+        for (String field : indexed) {
+            for (Map.Entry<String, Long> value : counts.get(field).entrySet()) {
+                if (value.getValue() == 0) continue;
+                bulk.upsert(valueQuery(listId, field, value.getKey()), new Update().inc("count", sign * value.getValue()));
+                updates++;
+            }
+        }
+        if (updates == 0) return;
+        bulk.execute();
+
+        mongoTemplate.remove(Query.query(Criteria.where("listId").is(listId).and("field").in(indexed).and("count").lte(0)),
+            ListValueCount.class);
+    }
+
+    /**
+     * Write the value counts and markers of fields that have no value documents yet
+     */
+    private void write(String listId, Map<String, Map<String, Long>> counts) {
+        BulkOperations values = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ListValueCount.class);
+        int inserts = 0;
+        for (Map.Entry<String, Map<String, Long>> field : counts.entrySet()) {
+            for (Map.Entry<String, Long> value : field.getValue().entrySet()) {
+                values.upsert(valueQuery(listId, field.getKey(), value.getKey()), new Update().set("count", value.getValue()));
+                inserts++;
+            }
+        }
+        if (inserts > 0) {
+            values.execute();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations markers = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ListFieldIndex.class);
+        counts.keySet().forEach(field -> markers.upsert(Query.query(Criteria.where("_id").is(key(listId, field))),
+            new Update().set("listId", listId).set("field", field).set("rebuiltAt", now)));
+        markers.execute();
+    }
+
+    private void removeFields(String listId, Collection<String> fields) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(fields.stream().map(field -> key(listId, field)).toList())),
+            ListFieldIndex.class);
+        mongoTemplate.remove(Query.query(Criteria.where("listId").is(listId).and("field").in(fields)), ListValueCount.class);
+    }
+
+    private Set<String> indexedFields(String listId, Collection<String> fields) {
+        Query query = Query.query(Criteria.where("_id").in(fields.stream().map(field -> key(listId, field)).toList()));
+        query.fields().include("field");
+        return mongoTemplate.find(query, ListFieldIndex.class).stream()
+            .map(ListFieldIndex::getField)
+            .collect(Collectors.toSet());
+    }
+
+    private static Query valueQuery(String listId, String field, String value) {
+        return Query.query(Criteria.where("listId").is(listId).and("field").is(field).and("value").is(value));
+    }
+
+    private static String key(String listId, String field) {
+        return listId + ":" + field;
+    }
+}
@@ -0,0 +1,37 @@
+package com.affluo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory record of recently applied (formSubmissionId, inventoryItemId) pairs.
+ *
+ * Lets duplicate deliveries be rejected without touching Mongo. It is only a fast path: the item's
+ * appliedSubmissions marker, checked by the stock update itself, remains the authority for keys that
+ * have been evicted or were applied on another node.
+ */
+@Component
+public class MovementIdempotencyGuard {
+
+    private final Cache<String, Boolean> recentKeys;
+
+    public MovementIdempotencyGuard(@Value("${inventory.idempotency.recent-keys:100000}") long maximumSize) {
+        this.recentKeys = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    public boolean isRecentlyApplied(String formSubmissionId, String inventoryItemId) {
+        return recentKeys.getIfPresent(key(formSubmissionId, inventoryItemId)) != null;
+    }
+
+    public void markApplied(String formSubmissionId, String inventoryItemId) {
+        recentKeys.put(key(formSubmissionId, inventoryItemId), Boolean.TRUE);
+    }
+
+    private static String key(String formSubmissionId, String inventoryItemId) {
+        return formSubmissionId + ':' + inventoryItemId;
+    }
+}
@@ -0,0 +1,97 @@
+package com.affluo.service;
+
+import com.affluo.security.RefreshTokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates opaque refresh tokens of the form {familyId}.{secret}.
+ *
+ * Only a SHA-256 hash of the current token of each family is stored. Every refresh replaces the token;
+ * replaying an already rotated token revokes the whole family, so a stolen token stops working for
+ * both the thief and the owner once either of them uses it.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenStore store;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${auth.refresh.ttl:14d}")
+    private Duration ttl;
+
+    public RefreshTokenService(RefreshTokenStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Start a new token family for a user who just logged in
+     */
+    public String issue(String username) {
+        String familyId = randomToken(16);
+        String token = familyId + "." + randomToken(32);
+        store.create(familyId, username, hash(token), ttl);
+        return token;
+    }
+
+    /**
+     * Exchange a refresh token for its successor
+     *
+     * @throws BadCredentialsException when the token is unknown, expired or was already used
+     */
+    public RotatedToken rotate(String token) {
+        String familyId = familyId(token);
+        String next = familyId + "." + randomToken(32);
+
+        RefreshTokenStore.Rotation rotation = store.rotate(familyId, hash(token), hash(next), ttl);
+        return switch (rotation.outcome()) {
+            case ROTATED -> new RotatedToken(rotation.username(), next);
+            case REUSED -> {
+                log.warn("Refresh token reuse detected for user {}, revoked token family {}", rotation.username(), familyId);
+                throw new BadCredentialsException("Refresh token has already been used");
+            }
+            case UNKNOWN -> throw new BadCredentialsException("Invalid refresh token");
+        };
+    }
+
+    public void revoke(String token) {
+        store.revoke(familyId(token));
+    }
+
+    private static String familyId(String token) {
+        int separator = token == null ? -1 : token.indexOf('.');
+        if (separator <= 0) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return token.substring(0, separator);
+    }
+
+    private String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        random.nextBytes(buffer);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record RotatedToken(String username, String refreshToken) {
+    }
+}
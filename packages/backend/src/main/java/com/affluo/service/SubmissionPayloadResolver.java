@@ -0,0 +1,70 @@
+package com.affluo.service;
+
+import com.affluo.model.FormSubmission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decides how much of a submission's data map is copied onto inventory movements and adjustments,
+ * and hydrates the full payload on demand.
+ *
+ * In the default "reference" mode movements keep only formSubmissionId and each adjustment keeps the
+ * keys of its own line, so a many-line submission stores its payload once. "full" keeps the legacy copies.
+ */
+@Component
+@Slf4j
+public class SubmissionPayloadResolver {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean storeReferences;
+
+    public SubmissionPayloadResolver(MongoTemplate mongoTemplate,
+                                     @Value("${inventory.payload-storage:reference}") String payloadStorage) {
+        this.mongoTemplate = mongoTemplate;
+        this.storeReferences = !"full".equalsIgnoreCase(payloadStorage);
+    }
+
+    /**
+     * Payload to copy onto a movement's metadata, null when movements only reference the submission
+     */
+    public Map<String, Object> submissionPayload(Map<String, Object> data) {
+        return storeReferences ? null : data;
+    }
+
+    /**
+     * Payload to copy onto a single adjustment line: only the given keys unless full storage is enabled
+     */
+    public Map<String, Object> linePayload(Map<String, Object> data, String... keys) {
+        if (!storeReferences || data == null) return data;
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (key != null && data.containsKey(key)) {
+                line.put(key, data.get(key));
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Load the full data map of a submission, fetching only the data field
+     */
+    public Optional<Map<String, Object>> resolve(String companyId, String formSubmissionId) {
+        if (formSubmissionId == null) return Optional.empty();
+
+        Query query = Query.query(Criteria.where("_id").is(formSubmissionId).and("companyId").is(companyId));
+        query.fields().include("data");
+
+        log.debug("Hydrating payload of submission {}", formSubmissionId);
+        return Optional.ofNullable(mongoTemplate.findOne(query, FormSubmission.class))
+            .map(FormSubmission::getData);
+    }
+}
@@ -0,0 +1,268 @@
+package com.affluo.service;
+
+import com.affluo.dto.FormSubmissionSummary;
+import com.affluo.model.Form;
+import com.affluo.model.FormSubmission;
+import com.affluo.model.SubmissionSearchEntry;
+import com.affluo.repository.mongo.FormRepository;
+import com.affluo.repository.mongo.FormSubmissionRepository;
+import com.affluo.util.MongoRegex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Inverted index over the values of form fields declared searchable.
+ *
+ * Each indexed value is stored in submission_search_index as (companyId, formId, fieldId, value),
+ * so exact and prefix lookups are index range scans instead of scans over arbitrary data map keys.
+ */
+@Service
+@Slf4j
+public class SubmissionSearchService {
+
+    private final MongoTemplate mongoTemplate;
+    private final FormRepository formRepository;
+    private final FormSubmissionRepository formSubmissionRepository;
+    private final ExecutorService reindexExecutor;
+
+    @Value("${submissions.search.max-value-length:128}")
+    private int maxValueLength;
+
+    @Value("${submissions.search.reindex-chunk-size:1000}")
+    private int reindexChunkSize;
+
+    public SubmissionSearchService(MongoTemplate mongoTemplate,
+                                   FormRepository formRepository,
+                                   FormSubmissionRepository formSubmissionRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.formRepository = formRepository;
+        this.formSubmissionRepository = formSubmissionRepository;
+        this.reindexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "submission-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Search a form's submissions by the value of a searchable field, newest first
+     *
+     * @param prefix match values starting with the given text instead of the whole value
+     */
+    public List<FormSubmissionSummary> search(String companyId, String formId, String fieldId,
+                                              String value, boolean prefix, int limit) {
+        log.info("Searching submissions of form {} by field {} in company: {}", formId, fieldId, companyId);
+
+        Form form = formRepository.findByIdAndCompanyId(formId, companyId)
+            .orElseThrow(() -> new IllegalArgumentException("Form not found"));
+        if (!searchableFieldIds(form).contains(fieldId)) {
+            throw new IllegalArgumentException("Field " + fieldId + " is not searchable");
+        }
+
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Search value is required");
+        }
+
+        Criteria criteria = Criteria.where("companyId").is(companyId)
+            .and("formId").is(formId)
+            .and("fieldId").is(fieldId);
+        if (prefix) {
+            // Anchored, case-sensitive regex on normalized values is served as an index range scan
+            criteria = criteria.and("value").regex(MongoRegex.prefix(normalized));
+        } else {
+            criteria = criteria.and("value").is(normalized);
+        }
+
+        Query query = Query.query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "submittedAt"))
+            .limit(limit);
+        query.fields().include("submissionId");
+
+        Set<String> submissionIds = new LinkedHashSet<>();
+        mongoTemplate.find(query, SubmissionSearchEntry.class)
+            .forEach(entry -> submissionIds.add(entry.getSubmissionId()));
+
+        if (submissionIds.isEmpty()) return List.of();
+        return formSubmissionRepository.findSummariesByIds(companyId, submissionIds);
+    }
+
+    /**
+     * Add index entries for newly persisted submissions of a form.
+     * Failures are logged rather than thrown, a reindex repairs any gaps.
+     */
+    public void indexSubmissions(Form form, Collection<FormSubmission> submissions) {
+        Set<String> fieldIds = searchableFieldIds(form);
+        if (fieldIds.isEmpty()) return;
+
+        List<SubmissionSearchEntry> entries = new ArrayList<>();
+        submissions.forEach(submission -> collectEntries(fieldIds, submission, entries));
+        if (entries.isEmpty()) return;
+
+        try {
+            upsert(entries, LocalDateTime.now());
+        } catch (DataAccessException e) {
+            log.warn("Failed to index submissions of form {}: {}", form.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the index of a form in the background, e.g. after its searchable fields changed
+     */
+    public CompletableFuture<Void> reindexFormAsync(String companyId, String formId) {
+        return CompletableFuture.runAsync(() -> reindexForm(companyId, formId), reindexExecutor)
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    log.error("Search reindex failed for form {}: {}", formId, error.getMessage());
+                }
+            });
+    }
+
+    /**
+     * Drop every index entry of a form
+     */
+    public void deleteFormIndex(String companyId, String formId) {
+        mongoTemplate.remove(Query.query(Criteria.where("companyId").is(companyId).and("formId").is(formId)),
+            SubmissionSearchEntry.class);
+    }
+
+    /**
+     * Whether the searchable field declarations differ between two versions of a form
+     */
+    public boolean searchableFieldsChanged(Form previous, Form updated) {
+        return !searchableFieldIds(previous).equals(searchableFieldIds(updated));
+    }
+
+    /**
+     * Rebuild a form's entries while live indexing continues. Entries are upserted on their unique key
+     * and stamped, then entries the rebuild did not touch (values of fields no longer searchable,
+     * deleted submissions) are removed; live writes during the rebuild carry a newer stamp and survive.
+     */
+    private void reindexForm(String companyId, String formId) {
+        Form form = formRepository.findByIdAndCompanyId(formId, companyId).orElse(null);
+        if (form == null) {
+            deleteFormIndex(companyId, formId);
+            return;
+        }
+
+        LocalDateTime started = LocalDateTime.now();
+        Set<String> fieldIds = searchableFieldIds(form);
+        long indexed = 0;
+
+        if (!fieldIds.isEmpty()) {
+            Query query = Query.query(Criteria.where("companyId").is(companyId).and("formId").is(formId));
+            query.fields().include("companyId", "formId", "submittedAt")
+                .include(fieldIds.stream().map(fieldId -> "data." + fieldId).toArray(String[]::new));
+
+            List<SubmissionSearchEntry> entries = new ArrayList<>(reindexChunkSize);
+            try (CloseableIterator<FormSubmission> submissions = mongoTemplate.stream(query, FormSubmission.class)) {
+                while (submissions.hasNext()) {
+                    collectEntries(fieldIds, submissions.next(), entries);
+                    if (entries.size() >= reindexChunkSize) {
+                        upsert(entries, LocalDateTime.now());
+                        indexed += entries.size();
+                        entries = new ArrayList<>(reindexChunkSize);
+                    }
+                }
+            }
+            if (!entries.isEmpty()) {
+                upsert(entries, LocalDateTime.now());
+                indexed += entries.size();
+            }
+        }
+
+        mongoTemplate.remove(Query.query(Criteria.where("companyId").is(companyId)
+                .and("formId").is(formId)
+                .and("indexedAt").not().gte(started)),
+            SubmissionSearchEntry.class);
+
+        log.info("Rebuilt search index of form {} with {} entries", formId, indexed);
+    }
+
+    /**
+     * Write entries keyed on (formId, submissionId, fieldId, value), so overlapping live indexing and
+     * reindexing never produce duplicates
+     */
+    private void upsert(List<SubmissionSearchEntry> entries, LocalDateTime indexedAt) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SubmissionSearchEntry.class);
+        for (SubmissionSearchEntry entry : entries) {
+            bulk.upsert(Query.query(Criteria.where("formId").is(entry.getFormId())
+                    .and("submissionId").is(entry.getSubmissionId())
+                    .and("fieldId").is(entry.getFieldId())
+                    .and("value").is(entry.getValue())),
+                new Update()
+                    .set("companyId", entry.getCompanyId())
+                    .set("submittedAt", entry.getSubmittedAt())
+                    .set("indexedAt", indexedAt));
+        }
+        bulk.execute();
+    }
+
+    private void collectEntries(Set<String> fieldIds, FormSubmission submission, List<SubmissionSearchEntry> entries) {
+        Map<String, Object> data = submission.getData();
+        if (data == null) return;
+
+        for (String fieldId : fieldIds) {
+            Object value = data.get(fieldId);
+            if (value instanceof Collection<?> values) {
+                values.forEach(element -> addEntry(fieldId, element, submission, entries));
+            } else {
+                addEntry(fieldId, value, submission, entries);
+            }
+        }
+    }
+
+    private void addEntry(String fieldId, Object value, FormSubmission submission, List<SubmissionSearchEntry> entries) {
+        if (value == null) return;
+        String normalized = normalize(value.toString());
+        if (normalized.isEmpty()) return;
+
+        entries.add(new SubmissionSearchEntry(null, submission.getCompanyId(), submission.getFormId(), fieldId,
+            normalized, submission.getId(), submission.getSubmittedAt(), null));
+    }
+
+    private String normalize(String value) {
+        if (value == null) return "";
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > maxValueLength ? normalized.substring(0, maxValueLength) : normalized;
+    }
+
+    private static Set<String> searchableFieldIds(Form form) {
+        Set<String> fieldIds = new LinkedHashSet<>();
+        if (form.getFields() == null) return fieldIds;
+
+        for (Form.FormField field : form.getFields()) {
+            if (field.getId() != null && Boolean.TRUE.equals(field.getSearchable())) {
+                fieldIds.add(field.getId());
+            }
+        }
+        return fieldIds;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reindexExecutor.shutdown();
+    }
+}
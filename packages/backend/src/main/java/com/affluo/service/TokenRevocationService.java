@@ -0,0 +1,100 @@
+package com.affluo.service;
+
+import com.affluo.security.RevokedTokenStore;
+import com.affluo.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Revokes access tokens before their expiry without giving up stateless authentication.
+ *
+ * Every node keeps a Bloom filter of revoked jtis, fed by the store's revocation events and rebuilt
+ * periodically from the store, which also drops expired revocations and repairs missed events.
+ * A token that is not in the filter is accepted after a few hash probes; only filter hits are checked
+ * against the authoritative store.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenStore store;
+    private final long expectedRevocations;
+    private final double falsePositiveProbability;
+    private volatile BloomFilter filter;
+
+    private final Counter filterMisses;
+    private final Counter falsePositives;
+    private final Counter revokedHits;
+
+    public TokenRevocationService(RevokedTokenStore store,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${auth.revocation.false-positive-probability:0.001}") double falsePositiveProbability) {
+        this.store = store;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveProbability);
+        this.filterMisses = revocationCheckCounter(meterRegistry, "not_revoked");
+        this.falsePositives = revocationCheckCounter(meterRegistry, "false_positive");
+        this.revokedHits = revocationCheckCounter(meterRegistry, "revoked");
+
+        store.onRevocation(this::added);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not load revoked tokens at startup, retrying on the next rebuild: {}", e.getMessage());
+        }
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null) return;
+        store.revoke(tokenId, expiresAt);
+        added(tokenId);
+        log.info("Revoked token {}", tokenId);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) return false;
+        if (!filter.mightContain(tokenId)) {
+            filterMisses.increment();
+            return false;
+        }
+        if (store.isRevoked(tokenId)) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Replace the filter with one built from the store's current revocations. Holding the lock keeps
+     * revocation events from landing in the filter that is about to be replaced.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:600000}", initialDelayString = "${auth.revocation.rebuild-interval:600000}")
+    public synchronized void rebuild() {
+        Collection<String> revoked = store.activeRevocations();
+        BloomFilter next = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2L), falsePositiveProbability);
+        revoked.forEach(next::put);
+        filter = next;
+        log.debug("Rebuilt revocation filter with {} tokens", revoked.size());
+    }
+
+    private synchronized void added(String tokenId) {
+        filter.put(tokenId);
+    }
+
+    private static Counter revocationCheckCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.revocation.check")
+            .description("Revocation checks of authenticated tokens by result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.affluo.service;
+
+import com.affluo.cache.TwoTierCache;
+import com.affluo.cache.TwoTierCacheManager;
+import com.affluo.dto.DirectoryUser;
+import com.affluo.model.Company;
+import com.affluo.model.Team;
+import com.affluo.model.User;
+import com.affluo.repository.jpa.CompanyRepository;
+import com.affluo.repository.jpa.TeamRepository;
+import com.affluo.repository.jpa.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cached lookups of users, companies and teams for the login, refresh and admission paths.
+ *
+ * Entries go through a TwoTierCache; DirectoryCacheInvalidator evicts them on every JPA write.
+ * Users are cached as DirectoryUser, without the password hash; the account with its hash is only
+ * read from the database, for the password check.
+ */
+@Service
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+    private final CompanyRepository companyRepository;
+    private final TeamRepository teamRepository;
+    private final TwoTierCache<DirectoryUser> users;
+    private final TwoTierCache<Company> companies;
+    private final TwoTierCache<Team> teams;
+
+    public UserDirectory(UserRepository userRepository,
+                         CompanyRepository companyRepository,
+                         TeamRepository teamRepository,
+                         TwoTierCacheManager cacheManager,
+                         @Value("${cache.directory.local-size:10000}") long localSize,
+                         @Value("${cache.directory.local-ttl:1m}") Duration localTtl,
+                         @Value("${cache.directory.remote-ttl:10m}") Duration remoteTtl) {
+        this.userRepository = userRepository;
+        this.companyRepository = companyRepository;
+        this.teamRepository = teamRepository;
+        // Own namespace, so entries written as full User entities are never read back and simply expire
+        this.users = cacheManager.create("directory-users", DirectoryUser.class, localSize, localTtl, remoteTtl);
+        this.companies = cacheManager.create("companies", Company.class, localSize, localTtl, remoteTtl);
+        this.teams = cacheManager.create("teams", Team.class, localSize, localTtl, remoteTtl);
+    }
+
+    public Optional<DirectoryUser> findUserByUsername(String username) {
+        return users.get(username, name -> userRepository.findByUsername(name).map(DirectoryUser::from));
+    }
+
+    /**
+     * Load the account including its password hash, bypassing the cache
+     */
+    public Optional<User> findAccount(String username) {
+        return userRepository.findByUsername(username);
+    }
+
+    public Optional<Company> findCompany(String companyId) {
+        return companies.get(companyId, companyRepository::findByCompanyId);
+    }
+
+    public Optional<Team> findTeam(Long teamId) {
+        return teams.get(String.valueOf(teamId), id -> teamRepository.findById(teamId));
+    }
+
+    public void evictUser(String username) {
+        users.invalidate(username);
+    }
+
+    public void evictCompany(String companyId) {
+        companies.invalidate(companyId);
+    }
+
+    public void evictTeam(Long teamId) {
+        teams.invalidate(String.valueOf(teamId));
+    }
+}
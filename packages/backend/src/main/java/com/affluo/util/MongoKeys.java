@@ -0,0 +1,31 @@
+package com.affluo.util;
+
+/**
+ * Encodes user-supplied strings (field IDs, answer values) for use as Mongo document keys,
+ * which may not contain '.' or start with '$'. Encoding is reversible and leaves ordinary keys unchanged.
+ */
+public final class MongoKeys {
+
+    private MongoKeys() {
+    }
+
+    public static String encode(String key) {
+        if (key.isEmpty()) {
+            return "%";
+        }
+        if (key.indexOf('%') < 0 && key.indexOf('.') < 0 && key.indexOf('$') < 0) {
+            return key;
+        }
+        return key.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    public static String decode(String key) {
+        if (key.equals("%")) {
+            return "";
+        }
+        if (key.indexOf('%') < 0) {
+            return key;
+        }
+        return key.replace("%2E", ".").replace("%24", "$").replace("%25", "%");
+    }
+}
@@ -0,0 +1,26 @@
+package com.affluo.util;
+
+/**
+ * Builds anchored prefix regexes Mongo can turn into tight index bounds.
+ * Pattern.quote produces \Q...\E, which the query planner does not recognise as a simple prefix,
+ * so metacharacters are escaped one by one instead.
+ */
+public final class MongoRegex {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}#-";
+
+    private MongoRegex() {
+    }
+
+    public static String prefix(String value) {
+        StringBuilder regex = new StringBuilder(value.length() + 8).append('^');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (METACHARACTERS.indexOf(c) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.affluo.validation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable validator tree for one version of a form.
+ * Built by FormValidatorCompiler and shared across all submissions of that version.
+ */
+public final class CompiledFormValidator {
+
+    private final String formId;
+    private final LocalDateTime formVersion;
+    private final List<CompiledField> fields;
+
+    CompiledFormValidator(String formId, LocalDateTime formVersion, List<CompiledField> fields) {
+        this.formId = formId;
+        this.formVersion = formVersion;
+        this.fields = List.copyOf(fields);
+    }
+
+    public String getFormId() {
+        return formId;
+    }
+
+    public LocalDateTime getFormVersion() {
+        return formVersion;
+    }
+
+    /**
+     * Validate submission data, collecting every field error in a single pass
+     */
+    public List<FieldError> validate(Map<String, Object> data) {
+        List<FieldError> errors = null;
+
+        for (CompiledField field : fields) {
+            Object value = data.get(field.fieldId());
+
+            if (isEmpty(value)) {
+                if (field.required()) {
+                    errors = add(errors, new FieldError(field.fieldId(), "is required"));
+                }
+                continue;
+            }
+
+            for (FieldRule rule : field.rules()) {
+                String message = rule.check(value);
+                if (message != null) {
+                    errors = add(errors, new FieldError(field.fieldId(), message));
+                }
+            }
+        }
+
+        return errors == null ? List.of() : errors;
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || (value instanceof CharSequence text && text.toString().isBlank());
+    }
+
+    private static List<FieldError> add(List<FieldError> errors, FieldError error) {
+        if (errors == null) {
+            errors = new ArrayList<>(4);
+        }
+        errors.add(error);
+        return errors;
+    }
+
+    record CompiledField(String fieldId, boolean required, List<FieldRule> rules) {
+        CompiledField {
+            rules = List.copyOf(rules);
+        }
+    }
+
+    public record FieldError(String fieldId, String message) {
+        @Override
+        public String toString() {
+            return fieldId + ": " + message;
+        }
+    }
+}
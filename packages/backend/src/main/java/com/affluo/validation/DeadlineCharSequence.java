@@ -0,0 +1,51 @@
+package com.affluo.validation;
+
+/**
+ * CharSequence that aborts a regex match once a deadline has passed.
+ *
+ * java.util.regex reads its input through charAt, so a backtracking pattern supplied in a form
+ * definition cannot keep a request thread busy longer than the budget.
+ */
+final class DeadlineCharSequence implements CharSequence {
+
+    // Checking the clock on every read would dominate the cost of well-behaved patterns
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final CharSequence text;
+    private final long deadlineNanos;
+    private int reads;
+
+    DeadlineCharSequence(CharSequence text, long deadlineNanos) {
+        this.text = text;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (++reads % CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+            throw new MatchTimeoutException();
+        }
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new DeadlineCharSequence(text.subSequence(start, end), deadlineNanos);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+    static final class MatchTimeoutException extends RuntimeException {
+        MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+}
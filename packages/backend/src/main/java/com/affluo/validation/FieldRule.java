@@ -0,0 +1,16 @@
+package com.affluo.validation;
+
+/**
+ * A single precompiled check applied to a submitted field value.
+ * Implementations are immutable and safe to share between threads.
+ */
+@FunctionalInterface
+public interface FieldRule {
+
+    /**
+     * Check a non-null value
+     *
+     * @return an error message, or null when the value passes
+     */
+    String check(Object value);
+}
@@ -0,0 +1,111 @@
+package com.affluo.validation;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Factories for the rules a compiled form validator is built from.
+ * All parsing of the form definition (regexes, bounds, option sets) happens here, once per form version.
+ */
+public final class FieldRules {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private FieldRules() {
+    }
+
+    public static FieldRule number() {
+        return value -> toNumber(value) == null ? "must be a number" : null;
+    }
+
+    public static FieldRule email() {
+        return value -> EMAIL.matcher(value.toString()).matches() ? null : "must be a valid email address";
+    }
+
+    public static FieldRule date() {
+        return value -> {
+            String text = value.toString();
+            try {
+                // Accept both dates and date-times, only the date part is checked
+                LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+                return null;
+            } catch (DateTimeParseException e) {
+                return "must be an ISO date (yyyy-MM-dd)";
+            }
+        };
+    }
+
+    /**
+     * Regex rule whose match is aborted after the timeout, so a catastrophically backtracking pattern
+     * fails the field instead of pinning the thread
+     */
+    public static FieldRule pattern(String regex, Duration timeout) {
+        Pattern pattern = Pattern.compile(regex);
+        long timeoutNanos = timeout.toNanos();
+        return value -> {
+            CharSequence input = new DeadlineCharSequence(value.toString(), System.nanoTime() + timeoutNanos);
+            try {
+                return pattern.matcher(input).matches() ? null : "must match pattern " + regex;
+            } catch (DeadlineCharSequence.MatchTimeoutException e) {
+                return "could not be checked against pattern " + regex + " in time";
+            }
+        };
+    }
+
+    public static FieldRule range(BigDecimal min, BigDecimal max) {
+        return value -> {
+            BigDecimal number = toNumber(value);
+            if (number == null) return null; // Type errors are reported by the number rule
+            if (min != null && number.compareTo(min) < 0) return "must be at least " + min.toPlainString();
+            if (max != null && number.compareTo(max) > 0) return "must be at most " + max.toPlainString();
+            return null;
+        };
+    }
+
+    public static FieldRule length(Integer minLength, Integer maxLength) {
+        return value -> {
+            int length = value.toString().length();
+            if (minLength != null && length < minLength) return "must be at least " + minLength + " characters";
+            if (maxLength != null && length > maxLength) return "must be at most " + maxLength + " characters";
+            return null;
+        };
+    }
+
+    /**
+     * Membership check against a fixed option set. Collections (checkbox answers) must have every element in the set.
+     */
+    public static FieldRule oneOf(Set<String> allowed) {
+        return value -> {
+            if (value instanceof Collection<?> values) {
+                for (Object element : values) {
+                    if (element == null || !allowed.contains(element.toString())) {
+                        return "contains a value that is not an allowed option: " + element;
+                    }
+                }
+                return null;
+            }
+            return allowed.contains(value.toString()) ? null : "is not an allowed option: " + value;
+        };
+    }
+
+    static BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal decimal) return decimal;
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof Number number) {
+            double d = number.doubleValue();
+            return Double.isFinite(d) ? BigDecimal.valueOf(d) : null;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.affluo.validation;
+
+import com.affluo.event.FormChangedEvent;
+import com.affluo.model.Form;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Caches one compiled validator per form, keyed by form ID and checked against the form's updatedAt.
+ * List edits do not touch the form version; FormChangedEvent is published for forms whose lists changed
+ * and evicts their validators.
+ */
+@Component
+@Slf4j
+public class FormValidatorCache {
+
+    private final FormValidatorCompiler compiler;
+    private final Cache<String, CompiledFormValidator> validators;
+
+    public FormValidatorCache(FormValidatorCompiler compiler,
+                              @Value("${forms.validation.cache-size:2000}") long maximumSize,
+                              @Value("${forms.validation.cache-ttl:5m}") Duration ttl) {
+        this.compiler = compiler;
+        this.validators = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * Get the compiled validator for the given form version, compiling it on first use
+     */
+    public CompiledFormValidator getValidator(Form form) {
+        CompiledFormValidator validator = validators.get(form.getId(), id -> compiler.compile(form));
+        if (!Objects.equals(validator.getFormVersion(), form.getUpdatedAt())) {
+            log.debug("Form {} changed, recompiling validator", form.getId());
+            validator = compiler.compile(form);
+            validators.put(form.getId(), validator);
+        }
+        return validator;
+    }
+
+    public void evict(String formId) {
+        validators.invalidate(formId);
+    }
+
+    @EventListener
+    public void onFormChanged(FormChangedEvent event) {
+        evict(event.formId());
+    }
+}
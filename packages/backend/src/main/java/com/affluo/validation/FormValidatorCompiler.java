@@ -0,0 +1,135 @@
+package com.affluo.validation;
+
+import com.affluo.model.Form;
+import com.affluo.service.ListOptionsResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles Form.FormField definitions into an immutable CompiledFormValidator.
+ *
+ * Supported validation keys: pattern, min, max (number fields), minLength, maxLength.
+ * Pattern matches are bounded by forms.validation.pattern-timeout.
+ * Option sets come from options.enum or, for list-backed fields, from the list data source.
+ */
+@Component
+@Slf4j
+public class FormValidatorCompiler {
+
+    private final ListOptionsResolver listOptionsResolver;
+    private final Duration patternTimeout;
+
+    public FormValidatorCompiler(ListOptionsResolver listOptionsResolver,
+                                 @Value("${forms.validation.pattern-timeout:50ms}") Duration patternTimeout) {
+        this.listOptionsResolver = listOptionsResolver;
+        this.patternTimeout = patternTimeout;
+    }
+
+    public CompiledFormValidator compile(Form form) {
+        List<CompiledFormValidator.CompiledField> fields = new ArrayList<>();
+
+        if (form.getFields() != null) {
+            Map<String, List<String>> listOptions = listOptionsResolver.resolve(form);
+            for (Form.FormField field : form.getFields()) {
+                if (field.getId() == null) continue;
+                fields.add(new CompiledFormValidator.CompiledField(
+                    field.getId(),
+                    Boolean.TRUE.equals(field.getRequired()),
+                    compileRules(form, field, listOptions)
+                ));
+            }
+        }
+
+        log.debug("Compiled validator for form {} with {} fields", form.getId(), fields.size());
+        return new CompiledFormValidator(form.getId(), form.getUpdatedAt(), fields);
+    }
+
+    private List<FieldRule> compileRules(Form form, Form.FormField field, Map<String, List<String>> listOptions) {
+        List<FieldRule> rules = new ArrayList<>();
+        String type = field.getType() != null ? field.getType() : "text";
+        Map<String, Object> validation = field.getValidation() != null ? field.getValidation() : Map.of();
+
+        switch (type) {
+            case "number" -> {
+                rules.add(FieldRules.number());
+                BigDecimal min = toDecimal(validation.get("min"));
+                BigDecimal max = toDecimal(validation.get("max"));
+                if (min != null || max != null) {
+                    rules.add(FieldRules.range(min, max));
+                }
+            }
+            case "email" -> rules.add(FieldRules.email());
+            case "date" -> rules.add(FieldRules.date());
+            case "select", "radio", "checkbox" -> {
+                Set<String> options = resolveOptions(form, field, listOptions);
+                if (!options.isEmpty()) {
+                    rules.add(FieldRules.oneOf(options));
+                }
+            }
+            default -> {
+                // Free text, validated only through the validation map
+            }
+        }
+
+        Integer minLength = toInteger(validation.get("minLength"));
+        Integer maxLength = toInteger(validation.get("maxLength"));
+        if (minLength != null || maxLength != null) {
+            rules.add(FieldRules.length(minLength, maxLength));
+        }
+
+        Object pattern = validation.get("pattern");
+        if (pattern instanceof String regex && !regex.isBlank()) {
+            try {
+                rules.add(FieldRules.pattern(regex, patternTimeout));
+            } catch (PatternSyntaxException e) {
+                log.warn("Ignoring invalid pattern on field {} of form {}: {}", field.getId(), form.getId(), e.getMessage());
+            }
+        }
+
+        return rules;
+    }
+
+    /**
+     * Resolve the allowed option set from the form's pre-resolved list options or options.enum
+     */
+    private Set<String> resolveOptions(Form form, Form.FormField field, Map<String, List<String>> listOptions) {
+        Form.DataSource dataSource = field.getDataSource();
+        if (dataSource != null && "list".equals(dataSource.getType())) {
+            List<String> values = listOptions.get(field.getId());
+            if (values == null) {
+                log.warn("Skipping option check for field {} of form {}: list not found", field.getId(), form.getId());
+                return Set.of();
+            }
+            return Set.copyOf(values);
+        }
+
+        if (field.getOptions() != null && field.getOptions().get("enum") instanceof Collection<?> values) {
+            return values.stream()
+                .filter(value -> value != null)
+                .map(Object::toString)
+                .collect(Collectors.toUnmodifiableSet());
+        }
+
+        return Set.of();
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        return value == null ? null : FieldRules.toNumber(value);
+    }
+
+    private static Integer toInteger(Object value) {
+        BigDecimal number = toDecimal(value);
+        return number == null ? null : number.intValue();
+    }
+}
@@ -0,0 +1,60 @@
+package com.affluo.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-process stand-in for the Redis operations TwoTierCache uses: string get/set/setIfAbsent/delete
+ * and pub/sub delivered synchronously to every subscribed manager. TTLs are not modelled.
+ */
+class InMemoryRedis {
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final List<TwoTierCacheManager> subscribers = new CopyOnWriteArrayList<>();
+    private final StringRedisTemplate template;
+
+    @SuppressWarnings("unchecked")
+    InMemoryRedis() {
+        ValueOperations<String, String> operations = mock(ValueOperations.class);
+        when(operations.get(anyString())).thenAnswer(call -> values.get(call.<String>getArgument(0)));
+        when(operations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+            .thenAnswer(call -> values.putIfAbsent(call.getArgument(0), call.getArgument(1)) == null);
+        doAnswer(call -> values.put(call.getArgument(0), call.getArgument(1)))
+            .when(operations).set(anyString(), anyString(), any(Duration.class));
+
+        template = mock(StringRedisTemplate.class);
+        when(template.opsForValue()).thenReturn(operations);
+        when(template.delete(anyString())).thenAnswer(call -> values.remove(call.<String>getArgument(0)) != null);
+        when(template.convertAndSend(anyString(), anyString())).thenAnswer(call -> {
+            subscribers.forEach(manager -> manager.onInvalidation(call.getArgument(1)));
+            return (long) subscribers.size();
+        });
+    }
+
+    StringRedisTemplate template() {
+        return template;
+    }
+
+    /**
+     * Register a manager as another node subscribed to the invalidation channel
+     */
+    void subscribe(TwoTierCacheManager manager) {
+        subscribers.add(manager);
+    }
+
+    String get(String key) {
+        return values.get(key);
+    }
+}
@@ -0,0 +1,170 @@
+package com.affluo.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private InMemoryRedis redis;
+    private MeterRegistry meterRegistry;
+    private TwoTierCache<Account> node1;
+    private TwoTierCache<Account> node2;
+
+    record Account(String username, int version) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemoryRedis();
+        meterRegistry = new SimpleMeterRegistry();
+        node1 = createNode(meterRegistry);
+        node2 = createNode(new SimpleMeterRegistry());
+    }
+
+    private TwoTierCache<Account> createNode(MeterRegistry registry) {
+        TwoTierCacheManager manager = new TwoTierCacheManager(new ObjectMapper(), registry, redis.template(),
+            Duration.ofSeconds(10));
+        redis.subscribe(manager);
+        return manager.create("users", Account.class, 100, Duration.ofMinutes(1), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void answersFromLoaderThenLocalTier() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Optional<Account> first = node1.get("alice", key -> load(loads, key, 1));
+        Optional<Account> second = node1.get("alice", key -> load(loads, key, 2));
+
+        assertThat(first).contains(new Account("alice", 1));
+        assertThat(second).contains(new Account("alice", 1));
+        assertThat(loads).hasValue(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+        assertThat(lookups("l1")).isEqualTo(1);
+    }
+
+    @Test
+    void answersFromRemoteTierOnAnotherNode() {
+        AtomicInteger loads = new AtomicInteger();
+        node2.get("alice", key -> load(loads, key, 1));
+
+        Optional<Account> fromRemote = node1.get("alice", key -> load(loads, key, 2));
+
+        assertThat(fromRemote).contains(new Account("alice", 1));
+        assertThat(loads).hasValue(1);
+        assertThat(lookups("l2")).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotCacheAbsentValues() {
+        AtomicInteger loads = new AtomicInteger();
+
+        node1.get("nobody", key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<Account> again = node1.get("nobody", key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(again).isEmpty();
+        assertThat(loads).hasValue(2);
+        assertThat(redis.get("cache:users:nobody")).isNull();
+    }
+
+    @Test
+    void invalidationReachesEveryNode() {
+        AtomicInteger loads = new AtomicInteger();
+        node1.get("alice", key -> load(loads, key, 1));
+        node2.get("alice", key -> load(loads, key, 1));
+
+        node1.invalidate("alice");
+
+        assertThat(node1.get("alice", key -> load(loads, key, 2))).contains(new Account("alice", 2));
+        assertThat(node2.get("alice", key -> load(loads, key, 2))).contains(new Account("alice", 2));
+    }
+
+    @Test
+    void coalescesConcurrentMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int readers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Optional<Account>>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> node1.get("alice", key -> {
+                    loading.countDown();
+                    await(release);
+                    return load(loads, key, 1);
+                })));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            for (Future<Optional<Account>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(new Account("alice", 1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadThatReadTheOldRowBeforeAnInvalidationIsNotWrittenToRemoteTier() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Thread writer = new Thread(() -> node2.invalidate("alice"));
+
+        // The row is read, then the writer commits and invalidates before the load finishes
+        Optional<Account> stale = node1.get("alice", key -> {
+            Optional<Account> old = load(loads, key, 1);
+            writer.start();
+            while (!TwoTierCache.TOMBSTONE.equals(redis.get("cache:users:alice"))) {
+                Thread.onSpinWait();
+            }
+            return old;
+        });
+        writer.join(5000);
+
+        assertThat(stale).contains(new Account("alice", 1));
+        assertThat(redis.get("cache:users:alice")).isEqualTo(TwoTierCache.TOMBSTONE);
+        assertThat(node2.get("alice", key -> load(loads, key, 2))).contains(new Account("alice", 2));
+        assertThat(node1.get("alice", key -> load(loads, key, 2))).contains(new Account("alice", 2));
+    }
+
+    private static Optional<Account> load(AtomicInteger loads, String username, int version) {
+        loads.incrementAndGet();
+        return Optional.of(new Account(username, version));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("cache.two_tier.lookups").tag("result", result).counter().count();
+    }
+}
@@ -1,5 +1,6 @@
 import React, { createContext, useContext, useReducer, useEffect, ReactNode } from 'react';
 import AsyncStorage from '@react-native-async-storage/async-storage';
+import { apiService } from '../services/apiService';
 import { authService } from '../services/authService';
 import { User } from '../types/navigation';
 
@@ -20,7 +21,7 @@ type AuthAction =
 
 interface AuthContextType extends AuthState {
   login: (username: string, password: string) => Promise<void>;
-  logout: () => void;
+  logout: () => Promise<void>;
   clearError: () => void;
 }
 
@@ -93,14 +94,25 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
     };
 
     initAuth();
+
+    // Keep the session in step with token refreshes done by the API client
+    apiService.onSessionChange((session) => {
+      if (session) {
+        dispatch({ type: 'AUTH_SUCCESS', payload: session });
+      } else {
+        dispatch({ type: 'AUTH_LOGOUT' });
+      }
+    });
+    return () => apiService.onSessionChange(null);
   }, []);
 
   const login = async (username: string, password: string) => {
     try {
       dispatch({ type: 'AUTH_START' });
-      const { user, token } = await authService.login(username, password);
+      const { user, token, refreshToken } = await authService.login({ username, password });
       
       await AsyncStorage.setItem('token', token);
+      await AsyncStorage.setItem('refreshToken', refreshToken ?? '');
       await AsyncStorage.setItem('user', JSON.stringify(user));
       
       dispatch({ type: 'AUTH_SUCCESS', payload: { user, token } });
@@ -113,7 +125,16 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
 
   const logout = async () => {
     try {
+      const [token, refreshToken] = await Promise.all([
+        AsyncStorage.getItem('token'),
+        AsyncStorage.getItem('refreshToken'),
+      ]);
+      if (token && refreshToken) {
+        // The session is cleared locally even if the server cannot be reached
+        await authService.logout(token, refreshToken).catch((error) => console.warn('Server logout failed:', error));
+      }
       await AsyncStorage.removeItem('token');
+      await AsyncStorage.removeItem('refreshToken');
       await AsyncStorage.removeItem('user');
       dispatch({ type: 'AUTH_LOGOUT' });
     } catch (error) {
@@ -1,16 +1,28 @@
-import { Form, FormSubmission } from '../types/navigation';
+import AsyncStorage from '@react-native-async-storage/async-storage';
+import { Form, FormSubmission, User } from '../types/navigation';
+import { authService } from './authService';
+
+type SessionListener = (session: { user: User; token: string } | null) => void;
 
 class ApiService {
   private baseURL = 'http://localhost:8080/api/v1';
   private token: string | null = null;
+  private refreshInFlight: Promise<string> | null = null;
+  private sessionListener: SessionListener | null = null;
 
   setToken(token: string) {
     this.token = token;
   }
 
+  // Notified when a refresh replaces the session, or with null when it cannot be refreshed
+  onSessionChange(listener: SessionListener | null) {
+    this.sessionListener = listener;
+  }
+
   private async request<T>(
     endpoint: string,
-    options: RequestInit = {}
+    options: RequestInit = {},
+    retried = false
   ): Promise<T> {
     const url = `${this.baseURL}${endpoint}`;
     const headers: HeadersInit = {
@@ -27,6 +39,12 @@ class ApiService {
       headers,
     });
 
+    // Access tokens are short-lived: refresh once and replay the request
+    if (response.status === 401 && !retried) {
+      await this.refreshSession();
+      return this.request<T>(endpoint, options, true);
+    }
+
     if (!response.ok) {
       throw new Error(`API request failed: ${response.statusText}`);
     }
@@ -34,6 +52,37 @@ class ApiService {
     return response.json();
   }
 
+  // A single refresh is shared by all requests that fail with 401 meanwhile
+  private refreshSession(): Promise<string> {
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.doRefresh().finally(() => {
+        this.refreshInFlight = null;
+      });
+    }
+    return this.refreshInFlight;
+  }
+
+  private async doRefresh(): Promise<string> {
+    const refreshToken = await AsyncStorage.getItem('refreshToken');
+    try {
+      if (!refreshToken) {
+        throw new Error('No refresh token');
+      }
+      const session = await authService.refreshToken(refreshToken);
+      await AsyncStorage.setItem('token', session.token);
+      await AsyncStorage.setItem('refreshToken', session.refreshToken ?? '');
+      await AsyncStorage.setItem('user', JSON.stringify(session.user));
+      this.token = session.token;
+      this.sessionListener?.({ user: session.user, token: session.token });
+      return session.token;
+    } catch (error) {
+      await AsyncStorage.multiRemove(['token', 'refreshToken', 'user']);
+      this.token = null;
+      this.sessionListener?.(null);
+      throw new Error('Session expired');
+    }
+  }
+
   // Forms
   async getForms(companyId: string): Promise<Form[]> {
     return this.request<Form[]>(`/companies/${companyId}/forms`);
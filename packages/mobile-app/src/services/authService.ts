@@ -77,6 +77,22 @@ class AuthService {
       throw new Error(error.message || 'Token refresh failed');
     }
   }
+
+  async logout(token: string, refreshToken: string): Promise<void> {
+    // Revokes the refresh token and the access token it is sent with
+    const response = await fetch(`${this.baseURL}/auth/logout`, {
+      method: 'POST',
+      headers: {
+        'Authorization': `Bearer ${token}`,
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify({ refreshToken }),
+    });
+
+    if (!response.ok) {
+      throw new Error('Logout failed');
+    }
+  }
 }
 
 export const authService = new AuthService();